@@ -0,0 +1,50 @@
+package app.newellgames.benchmark;
+
+import app.newellgames.cart.model.Cart;
+import app.newellgames.cart.service.CartService;
+import app.newellgames.game.model.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// CartService.calculateTotalPrice and getGamesForUser on an in-memory cart, both run on every cart page and purchase
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int cartSize;
+
+    @Param({"1000"})
+    private int catalogSize;
+
+    // Neither method touches the repositories
+    private final CartService cartService = new CartService(null, null);
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+
+        SyntheticData data = new SyntheticData(42);
+        List<Game> catalog = data.catalog(catalogSize);
+        cart = data.cart(data.user(), catalog, cartSize);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalPrice() {
+        return cartService.calculateTotalPrice(cart);
+    }
+
+    @Benchmark
+    public Set<Game> getGamesForUser() {
+        return cartService.getGamesForUser(cart);
+    }
+}
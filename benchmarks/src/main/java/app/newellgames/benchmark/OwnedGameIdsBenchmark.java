@@ -0,0 +1,84 @@
+package app.newellgames.benchmark;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.user.model.User;
+import app.newellgames.user.repository.UserRepository;
+import app.newellgames.user.service.OwnershipService;
+import app.newellgames.user.service.UserService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// UserService.getOwnedGameIds, read by the shop on every page
+// - cacheHit: the set is in the "ownedGameIds" cache
+// - cacheMiss: a cache that keeps nothing, so every call copies the library that the repository returns into a new set
+// The repository is an in-memory stub, the query itself isn't measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnedGameIdsBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int librarySize;
+
+    @Param({"20000"})
+    private int catalogSize;
+
+    private User user;
+    private UserService cachingUserService;
+    private UserService nonCachingUserService;
+
+    @Setup
+    public void setUp() {
+
+        SyntheticData data = new SyntheticData(42);
+        List<Game> catalog = data.catalog(catalogSize);
+        List<UUID> library = data.library(catalog, librarySize);
+        user = data.user();
+
+        UserRepository userRepository = libraryRepository(library);
+        cachingUserService = userService(userRepository, Caffeine.newBuilder().maximumSize(50000));
+        nonCachingUserService = userService(userRepository, Caffeine.newBuilder().maximumSize(0).executor(Runnable::run));
+
+        cachingUserService.getOwnedGameIds(user);
+    }
+
+    @Benchmark
+    public Set<UUID> cacheHit() {
+        return cachingUserService.getOwnedGameIds(user);
+    }
+
+    @Benchmark
+    public Set<UUID> cacheMiss() {
+        return nonCachingUserService.getOwnedGameIds(user);
+    }
+
+    // getOwnedGameIds only needs OwnershipService, the other collaborators are never called
+    private static UserService userService(UserRepository userRepository, Caffeine<Object, Object> caffeine) {
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("ownedGameIds");
+        cacheManager.setCaffeine(caffeine);
+        OwnershipService ownershipService = new OwnershipService(userRepository, cacheManager);
+
+        return new UserService(null, null, null, null, null, null, null, ownershipService, null);
+    }
+
+    private static UserRepository libraryRepository(List<UUID> library) {
+
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+            if (method.getName().equals("findOwnedGameIds")) {
+                return library;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
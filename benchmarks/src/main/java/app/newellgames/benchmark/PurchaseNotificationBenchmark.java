@@ -0,0 +1,57 @@
+package app.newellgames.benchmark;
+
+import app.event.NotificationEvent;
+import app.event.NotificationEventType;
+import app.newellgames.cart.model.Cart;
+import app.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The purchase email, built in two steps since notifications are sent as events
+// - publishEvent: NotificationEvent.purchaseCompleted, which purchaseCartItems calls to collect the titles of the cart (main app)
+// - renderBody: notification-svc turns the event into the email body, "- %s%n".formatted for every title
+// Both call the production methods, the body of a 100 item cart fits the LONGTEXT Notification.body
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PurchaseNotificationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int cartSize;
+
+    @Param({"1000"})
+    private int catalogSize;
+
+    private Cart cart;
+    private NotificationEvent event;
+
+    @Setup
+    public void setUp() {
+
+        SyntheticData data = new SyntheticData(42);
+        cart = data.cart(data.user(), data.catalog(catalogSize), cartSize);
+
+        app.newellgames.notification.event.NotificationEvent published = publishEvent();
+        event = NotificationEvent.builder()
+                .eventId(published.getEventId())
+                .type(NotificationEventType.valueOf(published.getType().name()))
+                .userId(published.getUserId())
+                .occurredOn(published.getOccurredOn())
+                .attributes(published.getAttributes())
+                .build();
+    }
+
+    @Benchmark
+    public app.newellgames.notification.event.NotificationEvent publishEvent() {
+        return app.newellgames.notification.event.NotificationEvent.purchaseCompleted(cart.getUser(), cart.getItems());
+    }
+
+    @Benchmark
+    public String renderBody() {
+        return DtoMapper.fromNotificationEvent(event).getBody();
+    }
+}
@@ -0,0 +1,61 @@
+package app.newellgames.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH json results (-rf json) and fails when a benchmark got slower than the baseline allows
+// - benchmarks are matched by name and params, the ones missing from either file are skipped
+// - all benchmarks here measure average time, so a higher score is worse
+// Usage: java -cp target/benchmarks.jar app.newellgames.benchmark.RegressionCheck baseline.json current.json [tolerance %, default 10]
+public final class RegressionCheck {
+
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.json> <current.json> [tolerance %]");
+            System.exit(2);
+        }
+
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Double> baseline = scores(new File(args[0]));
+        Map<String, Double> current = scores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double baselineScore = baseline.get(entry.getKey());
+            if (baselineScore == null) {
+                continue;
+            }
+
+            double change = (entry.getValue() - baselineScore) / baselineScore;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-6s %-90s %12.2f -> %12.2f (%+.1f%%)%n", regressed ? "SLOWER" : "ok", entry.getKey(), baselineScore, entry.getValue(), change * 100);
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) are more than %.0f%% slower than the baseline.%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Double> scores(File file) throws IOException {
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            scores.put(result.path("benchmark").asText() + params, result.path("primaryMetric").path("score").asDouble());
+        }
+
+        return scores;
+    }
+}
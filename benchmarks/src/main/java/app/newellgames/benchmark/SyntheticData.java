@@ -0,0 +1,104 @@
+package app.newellgames.benchmark;
+
+import app.newellgames.cart.model.Cart;
+import app.newellgames.cart.model.CartItem;
+import app.newellgames.game.model.Game;
+import app.newellgames.game.model.Genre;
+import app.newellgames.user.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Generated catalogs, carts and libraries for the benchmarks
+// - a fixed seed, so every run (and the baseline) measures the same data
+public final class SyntheticData {
+
+    private static final String[] WORDS = {"Elden", "Ring", "Dota", "Cyberpunk", "Witcher", "Hollow", "Knight", "Portal", "Stardew", "Valley", "Dark", "Souls"};
+
+    private final Random random;
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<Game> catalog(int size) {
+
+        List<Game> games = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            games.add(Game.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .title("%s %s %d".formatted(word(), word(), i))
+                    .description("Synthetic game number %d".formatted(i))
+                    .publisher(word())
+                    .price(BigDecimal.valueOf(random.nextInt(6000), 2))
+                    .releaseDate(LocalDate.of(2000 + random.nextInt(25), 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .genre(Genre.values()[random.nextInt(Genre.values().length)])
+                    .users(new ArrayList<>())
+                    .reviews(new ArrayList<>())
+                    .build());
+        }
+
+        return games;
+    }
+
+    // Cart with cartSize distinct games of the catalog, the item price is the game price like in CartService.addGameToCart
+    public Cart cart(User user, List<Game> catalog, int cartSize) {
+
+        Cart cart = Cart.builder().id(UUID.randomUUID()).user(user).items(new ArrayList<>()).build();
+        for (Game game : pick(catalog, cartSize)) {
+            cart.getItems().add(CartItem.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .cart(cart)
+                    .game(game)
+                    .price(game.getPrice())
+                    .build());
+        }
+
+        return cart;
+    }
+
+    // Ids of librarySize distinct games of the catalog, what users_games holds for one user
+    public List<UUID> library(List<Game> catalog, int librarySize) {
+        return pick(catalog, librarySize).stream().map(Game::getId).toList();
+    }
+
+    public User user() {
+
+        return User.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .username("user" + random.nextInt(1_000_000))
+                .build();
+    }
+
+    public List<String> uuidStrings(int count, boolean valid) {
+
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String uuid = new UUID(random.nextLong(), random.nextLong()).toString();
+            values.add(valid ? uuid : uuid.substring(0, 8 + random.nextInt(20)) + "not-a-uuid");
+        }
+
+        return values;
+    }
+
+    private List<Game> pick(List<Game> catalog, int count) {
+
+        if (count > catalog.size()) {
+            throw new IllegalArgumentException("Can't pick %d games from a catalog of %d.".formatted(count, catalog.size()));
+        }
+
+        List<Game> shuffled = new ArrayList<>(catalog);
+        Collections.shuffle(shuffled, random);
+
+        return shuffled.subList(0, count);
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,43 @@
+package app.newellgames.benchmark;
+
+import app.newellgames.utility.UuidUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// UuidUtility.isValid, called on ids that come from search bars and path variables
+// - valid: UUID.fromString succeeds
+// - invalid: every call ends with an IllegalArgumentException, the costly path
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidUtilityBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private List<String> valid;
+    private List<String> invalid;
+    private int next;
+
+    @Setup
+    public void setUp() {
+
+        SyntheticData data = new SyntheticData(42);
+        valid = data.uuidStrings(VALUES, true);
+        invalid = data.uuidStrings(VALUES, false);
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return UuidUtility.isValid(valid.get(next++ & (VALUES - 1)));
+    }
+
+    @Benchmark
+    public boolean invalid() {
+        return UuidUtility.isValid(invalid.get(next++ & (VALUES - 1)));
+    }
+}
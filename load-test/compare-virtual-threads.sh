@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Throughput of the blocking-heavy pages, GET /shop and POST /cart/purchase, with platform threads vs virtual threads
+# For every mode the main app is started with the load-test profile (mvn spring-boot:test-run in the root), TrafficDriver
+# drives it and the app is stopped again, so both modes run on the same freshly seeded data
+# - platform: the default Java 17 build, Tomcat's fixed thread pool
+# - virtual: the virtual-threads Maven profile, a Java 21 build with spring.threads.virtual.enabled, JAVA_HOME has to be a JDK 21
+#   it runs with -Djdk.tracePinnedThreads=short, the number of pinned carrier threads is reported next to the numbers
+# The notification-svc stub answers after NOTIFICATION_LATENCY, so the pages block on Feign like with a remote notification-svc
+#
+#   ./compare-virtual-threads.sh                        -> both modes
+#   MODES=platform ./compare-virtual-threads.sh         -> one mode
+#   VIRTUAL_USERS=400 DURATION=2m APP_ARGS="--spring.datasource.url=..." ./compare-virtual-threads.sh
+#
+# Every mode's driver report and app log end up in RESULTS, the /shop and /cart/purchase rows of all modes in RESULTS/summary.csv
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")" && pwd)"
+ROOT="$(dirname "$HERE")"
+MODES="${MODES:-platform virtual}"
+VIRTUAL_USERS="${VIRTUAL_USERS:-200}"
+DURATION="${DURATION:-60s}"
+NOTIFICATION_LATENCY="${NOTIFICATION_LATENCY:-50ms}"
+APP_ARGS="${APP_ARGS:-}"
+PORT="${PORT:-8080}"
+STARTUP_TIMEOUT="${STARTUP_TIMEOUT:-600}"
+RESULTS="${RESULTS:-$HERE/target/compare-virtual-threads}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+APP_PID=""
+stop_app() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+        APP_PID=""
+    fi
+    pkill -f app.newellgames.loadtest.LoadTestApplication 2>/dev/null || true
+}
+trap stop_app EXIT
+
+start_app() {
+    local mode="$1" maven_profile=""
+
+    if [ "$mode" = "virtual" ]; then
+        local java_version
+        java_version="$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ { print $2 }')"
+        if [ "${java_version%%.*}" -lt 21 ]; then
+            echo "Virtual thread mode needs a JDK 21, $JAVA is $java_version. Point JAVA_HOME to a JDK 21." >&2
+            exit 1
+        fi
+        maven_profile="-Pvirtual-threads"
+    fi
+
+    (cd "$ROOT" && exec mvn -B -q $maven_profile spring-boot:test-run \
+        -Dspring-boot.run.arguments="--server.port=$PORT --load-test.notification-stub.latency=$NOTIFICATION_LATENCY $APP_ARGS") \
+        > "$RESULTS/$mode-app.log" 2>&1 &
+    APP_PID=$!
+
+    local waited=0
+    until curl -s -o /dev/null "http://localhost:$PORT/login"; do
+        if ! kill -0 "$APP_PID" 2>/dev/null || [ "$waited" -ge "$STARTUP_TIMEOUT" ]; then
+            echo "The app didn't start in $mode mode, see $RESULTS/$mode-app.log" >&2
+            exit 1
+        fi
+        sleep 2
+        waited=$((waited + 2))
+    done
+}
+
+mkdir -p "$RESULTS"
+echo "mode,endpoint,requests,errors,requests_per_sec,p50_ms,p95_ms,p99_ms,pinned_threads" > "$RESULTS/summary.csv"
+(cd "$HERE" && mvn -B -q compile)
+
+for mode in $MODES; do
+    echo "== $mode: $VIRTUAL_USERS virtual users for $DURATION, notification-svc latency $NOTIFICATION_LATENCY"
+    start_app "$mode"
+
+    (cd "$HERE" && mvn -B -q exec:java -Dexec.args="--base-url http://localhost:$PORT --virtual-users $VIRTUAL_USERS --duration $DURATION") \
+        | tee "$RESULTS/$mode.txt"
+
+    stop_app
+
+    # -Djdk.tracePinnedThreads=short prints one "<== monitors" line per frame that held a monitor while the thread blocked
+    pinned="$(grep -c '<== monitors' "$RESULTS/$mode-app.log" || true)"
+    awk -v mode="$mode" -v pinned="$pinned" '
+        ($1 == "GET" && $2 == "/shop") || ($1 == "POST" && $2 == "/cart/purchase") {
+            printf "%s,%s %s,%s,%s,%s,%s,%s,%s,%s\n", mode, $1, $2, $3, $4, $5, $6, $7, $8, pinned
+        }' "$RESULTS/$mode.txt" >> "$RESULTS/summary.csv"
+done
+
+echo
+column -s, -t "$RESULTS/summary.csv" 2>/dev/null || cat "$RESULTS/summary.csv"
@@ -0,0 +1,101 @@
+package app.newellgames.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latencies and errors per endpoint for one virtual user, merged into one report at the end
+// - every virtual user records into its own instance, so recording needs no locking
+public final class LatencyStats {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean failed) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, failed);
+    }
+
+    public static LatencyStats merge(List<LatencyStats> all) {
+
+        LatencyStats merged = new LatencyStats();
+        for (LatencyStats stats : all) {
+            stats.samples.forEach((endpoint, samples) -> merged.samples.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+        }
+
+        return merged;
+    }
+
+    // One line per endpoint: requests, errors, throughput over the run and p50 / p95 / p99 / max in milliseconds
+    public String report(double seconds) {
+
+        StringBuilder report = new StringBuilder("%-28s %9s %7s %9s %9s %9s %9s %9s%n".formatted("endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        samples.forEach((endpoint, endpointSamples) -> {
+            long[] sorted = endpointSamples.sorted();
+            report.append("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n".formatted(endpoint, sorted.length, endpointSamples.errors, sorted.length / seconds,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 95)), millis(percentile(sorted, 99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+
+        return report.toString();
+    }
+
+    // Nearest-rank percentile
+    static long percentile(long[] sorted, double percentile) {
+
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Samples {
+
+        private final List<long[]> chunks = new ArrayList<>();
+        private long[] current = new long[1024];
+        private int size;
+        private int total;
+        private int errors;
+
+        private void add(long nanos, boolean failed) {
+
+            if (size == current.length) {
+                chunks.add(current);
+                current = new long[current.length * 2];
+                size = 0;
+            }
+            current[size++] = nanos;
+            total++;
+            if (failed) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+
+            for (long nanos : other.sorted()) {
+                add(nanos, false);
+            }
+            errors += other.errors;
+        }
+
+        private long[] sorted() {
+
+            long[] all = new long[total];
+            int position = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, position, chunk.length);
+                position += chunk.length;
+            }
+            System.arraycopy(current, 0, all, position, size);
+            Arrays.sort(all);
+
+            return all;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package app.newellgames.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drives the main app started with the load-test profile (seeded users loaduser0.., notification-svc stub)
+// - every virtual user logs in as its own seeded user and repeats the scenario of UserSession until the duration is over
+// - prints requests, errors, throughput and p50 / p95 / p99 per endpoint
+//
+// Options (all optional):
+//   --base-url http://localhost:8080   --virtual-users 20   --duration 60s   --think-time 0ms
+//   --users 10000 (seeded users)       --games 2000 (seeded games)          --password password   --seed 42
+public final class TrafficDriver {
+
+    public static void main(String[] args) throws InterruptedException {
+
+        Map<String, String> options = options(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int virtualUsers = Integer.parseInt(options.getOrDefault("virtual-users", "20"));
+        Duration duration = duration(options.getOrDefault("duration", "60s"));
+        Duration thinkTime = duration(options.getOrDefault("think-time", "0ms"));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        int games = Integer.parseInt(options.getOrDefault("games", "2000"));
+        String password = options.getOrDefault("password", "password");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        if (virtualUsers > users) {
+            throw new IllegalArgumentException("%d virtual users need at least as many seeded users, there are %d.".formatted(virtualUsers, users));
+        }
+
+        System.out.printf("Driving %s with %d virtual users for %s%n", baseUrl, virtualUsers, duration);
+
+        List<LatencyStats> allStats = new ArrayList<>();
+        AtomicLong iterations = new AtomicLong();
+        AtomicLong failedSessions = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(virtualUsers);
+        for (int i = 0; i < virtualUsers; i++) {
+            LatencyStats stats = new LatencyStats();
+            allStats.add(stats);
+            UserSession session = new UserSession(baseUrl, "loaduser" + i, password, games, new Random(seed + i), stats);
+
+            executor.submit(() -> {
+                try {
+                    if (!session.login()) {
+                        failedSessions.incrementAndGet();
+                        return;
+                    }
+                    while (System.nanoTime() < deadline) {
+                        session.iterate();
+                        iterations.incrementAndGet();
+                        if (!thinkTime.isZero()) {
+                            Thread.sleep(thinkTime.toMillis());
+                        }
+                    }
+                } catch (IOException e) {
+                    failedSessions.incrementAndGet();
+                    System.err.printf("Virtual user stopped: %s%n", e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("%d scenario iterations in %.1f s, %d virtual users failed to log in or stopped early%n%n", iterations.get(), seconds, failedSessions.get());
+        // Stats are read after awaitTermination, which makes the writes of the workers visible
+        System.out.print(LatencyStats.merge(allStats).report(seconds));
+    }
+
+    private static Map<String, String> options(String[] args) {
+
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option like --duration, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        return options;
+    }
+
+    // 500ms, 30s, 2m
+    private static Duration duration(String value) {
+
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+
+        return Duration.ofSeconds(Long.parseLong(value.replace("s", "")));
+    }
+}
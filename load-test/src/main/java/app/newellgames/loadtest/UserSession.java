@@ -0,0 +1,145 @@
+package app.newellgames.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// One virtual user: a logged in browser session that goes login -> shop -> add to cart -> cart -> purchase -> notifications
+// - own HttpClient and cookie jar, redirects are not followed so every request is timed on its own
+// - the CSRF token of every POST is read from the page that has the form, like a browser would submit it
+// - a 3xx to /login counts as an error, the session was lost
+public final class UserSession {
+
+    // Same title format as LoadTestDataSeeder in the main app
+    private static final String GAME_TITLE_FORMAT = "Load Test Game %06d";
+    private static final String MIN_UUID = "00000000-0000-0000-0000-000000000000";
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern ADD_TO_CART = Pattern.compile("action=\"/shop/add-to-cart/([0-9a-fA-F-]{36})\"");
+    private static final Pattern IDEMPOTENCY_KEY = Pattern.compile("name=\"idempotencyKey\"\\s+value=\"([^\"]*)\"");
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final int games;
+    private final Random random;
+    private final LatencyStats stats;
+    private final HttpClient client;
+
+    public UserSession(String baseUrl, String username, String password, int games, Random random, LatencyStats stats) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.games = games;
+        this.random = random;
+        this.stats = stats;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public boolean login() throws IOException, InterruptedException {
+
+        Page loginPage = get("GET /login", "/login");
+        Page loggedIn = post("POST /login", "/login", Map.of("username", username, "password", password, "_csrf", loginPage.csrf()));
+
+        return loggedIn.ok();
+    }
+
+    // One pass of the scenario, a purchase happens only when the shop page has a game the user can still buy
+    public void iterate() throws IOException, InterruptedException {
+
+        // Keyset page that starts at a random game, so the virtual users don't all buy the first page
+        String afterTitle = GAME_TITLE_FORMAT.formatted(random.nextInt(Math.max(1, games)));
+        Page shop = get("GET /shop", "/shop?afterTitle=%s&afterId=%s".formatted(encode(afterTitle), MIN_UUID));
+
+        List<String> buyable = shop.matches(ADD_TO_CART);
+        if (!buyable.isEmpty()) {
+            String gameId = buyable.get(random.nextInt(buyable.size()));
+            Page added = post("POST /shop/add-to-cart", "/shop/add-to-cart/" + gameId, Map.of("_csrf", shop.csrf()));
+
+            if (added.ok()) {
+                Page cart = get("GET /cart", "/cart");
+                post("POST /cart/purchase", "/cart/purchase", Map.of("idempotencyKey", cart.first(IDEMPOTENCY_KEY), "_csrf", cart.csrf()));
+            }
+        }
+
+        // The load-test profile has no Kafka, the purchase event stays in the outbox and the stub's history is empty
+        get("GET /notifications", "/notifications");
+    }
+
+    private Page get(String endpoint, String path) throws IOException, InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    private Page post(String endpoint, String path, Map<String, String> form) throws IOException, InterruptedException {
+
+        String body = new LinkedHashMap<>(form).entrySet().stream()
+                .map(field -> encode(field.getKey()) + "=" + encode(field.getValue()))
+                .collect(Collectors.joining("&"));
+
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private Page send(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            String location = response.headers().firstValue("Location").orElse("");
+            boolean ok = response.statusCode() < 300 || (response.statusCode() < 400 && !location.contains("/login"));
+            stats.record(endpoint, System.nanoTime() - start, !ok);
+
+            return new Page(ok, response.body());
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+
+    private record Page(boolean ok, String body) {
+
+        String csrf() {
+            return first(CSRF);
+        }
+
+        String first(Pattern pattern) {
+
+            Matcher matcher = pattern.matcher(body);
+            return matcher.find() ? matcher.group(1) : "";
+        }
+
+        List<String> matches(Pattern pattern) {
+
+            List<String> values = new ArrayList<>();
+            Matcher matcher = pattern.matcher(body);
+            while (matcher.find()) {
+                values.add(matcher.group(1));
+            }
+
+            return values;
+        }
+    }
+}
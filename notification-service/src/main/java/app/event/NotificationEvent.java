@@ -0,0 +1,32 @@
+package app.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+// Domain event published by the monolith to the notification-events topic, keyed by userId
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+
+    private UUID eventId;
+
+    private NotificationEventType type;
+
+    private UUID userId;
+
+    private LocalDateTime occurredOn;
+
+    private Map<String, String> attributes;
+
+    public String attribute(String name) {
+        return attributes == null ? "" : attributes.getOrDefault(name, "");
+    }
+}
@@ -0,0 +1,81 @@
+package app.event;
+
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import app.web.mapper.DtoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Consumes the monolith's domain events in batches (up to spring.kafka.consumer.max-poll-records per poll)
+// - every event becomes an email, the whole batch goes through NotificationService.sendNotifications,
+//   so preferences are loaded with one query and the notifications are saved with batched inserts
+// - events of one user come from one partition in the order they were published
+// - records that can't be deserialized arrive as null and are skipped, so are events that can't be turned into an email
+// - when the batch can't be saved, its events are sent one by one and the first one that fails is reported with
+//   BatchListenerFailedException, the ones before it stay committed and only that record is retried by the error handler
+// - a redelivered event is skipped by its eventId, so the records after the failed one aren't emailed twice
+@Slf4j
+@Component
+public class NotificationEventListener {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationEventListener(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @KafkaListener(topics = "${notification-events.topic}", batch = "true")
+    public void onEvents(List<NotificationEvent> events) {
+
+        // Index of every request in the batch, BatchListenerFailedException points at the record
+        List<Integer> indexes = new ArrayList<>();
+        List<NotificationRequest> notificationRequests = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+
+            NotificationEvent event = events.get(i);
+            if (event == null || event.getType() == null || event.getUserId() == null) {
+                continue;
+            }
+
+            try {
+                notificationRequests.add(DtoMapper.fromNotificationEvent(event));
+                indexes.add(i);
+            } catch (RuntimeException e) {
+                log.warn("Notification event with id %s couldn't be turned into an email: %s".formatted(event.getEventId(), e.getMessage()));
+            }
+        }
+
+        if (notificationRequests.size() < events.size()) {
+            log.warn("Skipped %d notification events that couldn't be read.".formatted(events.size() - notificationRequests.size()));
+        }
+
+        if (notificationRequests.isEmpty()) {
+            return;
+        }
+
+        try {
+            notificationService.sendNotifications(notificationRequests);
+        } catch (RuntimeException e) {
+            log.warn("Batch of %d notification events couldn't be saved, sending them one by one: %s".formatted(notificationRequests.size(), e.getMessage()));
+            sendOneByOne(notificationRequests, indexes);
+        }
+    }
+
+    private void sendOneByOne(List<NotificationRequest> notificationRequests, List<Integer> indexes) {
+
+        for (int i = 0; i < notificationRequests.size(); i++) {
+            try {
+                notificationService.sendNotifications(List.of(notificationRequests.get(i)));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Notification event with id %s couldn't be saved.".formatted(notificationRequests.get(i).getEventId()), e, indexes.get(i));
+            }
+        }
+    }
+}
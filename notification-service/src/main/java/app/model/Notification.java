@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Length;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -14,7 +15,14 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "notifications")
+// - (userId, deleted, status, createdOn) serves the per-status lookups, retry of the failed ones and the GROUP BY status summary
+// - (userId, deleted, createdOn) serves the history pages, which are ordered by createdOn across all statuses
+// - (status, deleted, nextAttemptOn) serves NotificationRetryScheduler looking for failed notifications that are due
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_deleted_status_created", columnList = "userId, deleted, status, createdOn"),
+        @Index(name = "idx_notifications_user_deleted_created", columnList = "userId, deleted, createdOn"),
+        @Index(name = "idx_notifications_status_deleted_next_attempt", columnList = "status, deleted, nextAttemptOn")
+})
 public class Notification {
 
     @Id
@@ -24,7 +32,8 @@ public class Notification {
     @Column(nullable = false)
     private String subject;
 
-    @Column(nullable = false)
+    // LONGTEXT on MySQL, a purchase lists every bought game and a review carries its whole description
+    @Column(nullable = false, length = Length.LONG32)
     private String body;
 
     @Column(nullable = false)
@@ -41,4 +50,15 @@ public class Notification {
     private UUID userId;
 
     private boolean deleted;
+
+    // Background retries done so far and when the next one may start, null means as soon as the scheduler sees it
+    @Column(nullable = false)
+    private int attempts;
+
+    private LocalDateTime nextAttemptOn;
+
+    // Id of the Kafka event the notification was made from, null for the ones requested over REST
+    // Events are delivered at least once, the unique constraint keeps a redelivered one from being saved and emailed twice
+    @Column(unique = true)
+    private UUID eventId;
 }
@@ -0,0 +1,5 @@
+package app.model;
+
+// One row of the GROUP BY status count of a user's notifications
+public record NotificationStatusCount(NotificationStatus status, long count) {
+}
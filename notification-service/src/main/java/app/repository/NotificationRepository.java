@@ -2,11 +2,17 @@ package app.repository;
 
 import app.model.Notification;
 import app.model.NotificationStatus;
+import app.model.NotificationStatusCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,5 +25,73 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
             """)
     List<Notification> findAllByUserIdAndDeletedIsFalse(@Param("userId") UUID userId);
 
-    List<Notification> findAllByUserIdAndStatus(UUID userId, NotificationStatus status);
+    // Soft-deletes the whole history with one statement, returns how many notifications were deleted
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Notification n SET n.deleted = true WHERE n.userId = :userId AND n.deleted = false
+            """)
+    int softDeleteAllByUserId(@Param("userId") UUID userId);
+
+    // Only the rows that still have the expected status are changed, so one that was changed meanwhile is left alone
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Notification n SET n.status = :newStatus WHERE n.id IN :ids AND n.status = :currentStatus
+            """)
+    int updateStatus(@Param("ids") Collection<UUID> ids, @Param("currentStatus") NotificationStatus currentStatus, @Param("newStatus") NotificationStatus newStatus);
+
+    @Query("""
+            SELECT new app.model.NotificationStatusCount(n.status, COUNT(n)) FROM Notification n
+            WHERE n.userId = :userId AND n.deleted = false
+            GROUP BY n.status
+            """)
+    List<NotificationStatusCount> countByStatus(@Param("userId") UUID userId);
+
+    // Newest first, id keeps the order stable for notifications created at the same time
+    @Query("""
+            SELECT n FROM Notification n WHERE n.userId = :userId AND n.deleted = false
+            ORDER BY n.createdOn DESC, n.id DESC
+            """)
+    List<Notification> findRecentByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    // Event ids that already have a notification, deleted ones included, so a redelivered event isn't saved again after the user cleared the history
+    @Query("""
+            SELECT n.eventId FROM Notification n WHERE n.eventId IN :eventIds
+            """)
+    List<UUID> findExistingEventIds(@Param("eventIds") Collection<UUID> eventIds);
+
+    // Claims due failed notifications and abandoned pending ones, rows already locked by another instance are skipped instead of waited for
+    // - a pending notification is abandoned when its email wasn't sent by stalePendingBefore (the instance died or its mail queue was dropped)
+    // Has to run in a transaction, the locks are held until the caller commits the claim
+    @Query(value = """
+            SELECT * FROM notifications
+            WHERE deleted = false AND attempts < :maxAttempts
+              AND ((status = 'FAILED' AND (next_attempt_on IS NULL OR next_attempt_on <= :now))
+                OR (status = 'PENDING' AND next_attempt_on <= :stalePendingBefore))
+            ORDER BY next_attempt_on
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notification> lockDueNotifications(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+                                            @Param("stalePendingBefore") LocalDateTime stalePendingBefore, @Param("limit") int limit);
+
+    // Abandoned pending notifications that are out of background attempts are given up on, they can't be claimed again
+    // FAILED keeps them in the user's summary and lets the user's "retry" send them
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Notification n SET n.status = app.model.NotificationStatus.FAILED
+            WHERE n.status = app.model.NotificationStatus.PENDING AND n.deleted = false
+              AND n.attempts >= :maxAttempts AND n.nextAttemptOn <= :stalePendingBefore
+            """)
+    int failExhaustedPending(@Param("maxAttempts") int maxAttempts, @Param("stalePendingBefore") LocalDateTime stalePendingBefore);
+
+    // Claims the failed notifications of one user for a manual retry, rows claimed by NotificationRetryScheduler are skipped
+    @Query(value = """
+            SELECT * FROM notifications
+            WHERE user_id = :userId AND status = 'FAILED' AND deleted = false
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notification> lockFailedNotificationsByUserId(@Param("userId") UUID userId);
 }
@@ -0,0 +1,189 @@
+package app.service;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends emails off the request thread
+// - Notifications are put in a bounded queue and a fixed number of workers take them from it
+// - A worker takes up to batchSize queued emails and sends them with one MailSender.send call,
+//   so JavaMailSender opens one SMTP connection for the whole batch instead of one per email
+// - When the queue is full, submit waits up to offerTimeout (backpressure), after that the notification is marked as FAILED
+// - After every batch the outcome of each email is written with an UPDATE of the status of rows that are still PENDING,
+//   the queued entities are stale by then and saving them would undo changes made meanwhile (e.g. the user clearing the history)
+@Slf4j
+@Component
+public class MailDispatchEngine {
+
+    private final NotificationRepository notificationRepository;
+    private final MailSender mailSender;
+    private final int workers;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final BlockingQueue<MailJob> queue;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @Autowired
+    public MailDispatchEngine(NotificationRepository notificationRepository, MailSender mailSender,
+                              @Value("${notification.mail.workers:4}") int workers,
+                              @Value("${notification.mail.queue-capacity:1000}") int queueCapacity,
+                              @Value("${notification.mail.batch-size:20}") int batchSize,
+                              @Value("${notification.mail.offer-timeout:2s}") Duration offerTimeout) {
+        this.notificationRepository = notificationRepository;
+        this.mailSender = mailSender;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::work);
+        }
+    }
+
+    // Workers send what is left in the queue before they stop
+    @PreDestroy
+    public void stop() throws InterruptedException {
+
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Mail workers didn't finish in time, %d emails were not sent.".formatted(queue.size()));
+            executor.shutdownNow();
+        }
+    }
+
+    // Returns false when there is no contact info or the queue stayed full for offerTimeout, then the notification is saved as FAILED
+    public boolean submit(Notification notification, String contactInfo) {
+
+        if (contactInfo == null || contactInfo.isBlank()) {
+            log.warn("User with id %s has no contact info, notification is marked as FAILED.".formatted(notification.getUserId()));
+            markAs(List.of(notification), NotificationStatus.FAILED);
+            return false;
+        }
+
+        try {
+            if (queue.offer(new MailJob(notification, contactInfo), offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.warn("Mail queue is full, notification for user with id %s is marked as FAILED.".formatted(notification.getUserId()));
+        markAs(List.of(notification), NotificationStatus.FAILED);
+
+        return false;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void work() {
+
+        List<MailJob> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                MailJob first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Mail worker failed to process a batch of %d emails due to %s.".formatted(batch.size(), e.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<MailJob> batch) {
+
+        SimpleMailMessage[] messages = batch.stream().map(MailJob::toMessage).toArray(SimpleMailMessage[]::new);
+
+        Set<Object> failedMessages = Collections.emptySet();
+        boolean allFailed = false;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages().keySet();
+            allFailed = failedMessages.isEmpty();
+            log.warn("There was an issue sending %d of %d emails due to %s.".formatted(allFailed ? messages.length : failedMessages.size(), messages.length, e.getMessage()));
+        } catch (Exception e) {
+            allFailed = true;
+            log.warn("There was an issue sending %d emails due to %s.".formatted(messages.length, e.getMessage()));
+        }
+
+        List<Notification> succeeded = new ArrayList<>(batch.size());
+        List<Notification> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Notification notification = batch.get(i).notification();
+            if (allFailed || failedMessages.contains(messages[i])) {
+                failed.add(notification);
+            } else {
+                succeeded.add(notification);
+            }
+        }
+
+        markAs(succeeded, NotificationStatus.SUCCEEDED);
+        markAs(failed, NotificationStatus.FAILED);
+    }
+
+    private void markAs(List<Notification> notifications, NotificationStatus status) {
+
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        notifications.forEach(notification -> notification.setStatus(status));
+        notificationRepository.updateStatus(notifications.stream().map(Notification::getId).toList(), NotificationStatus.PENDING, status);
+    }
+
+    private record MailJob(Notification notification, String contactInfo) {
+
+        SimpleMailMessage toMessage() {
+
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(contactInfo);
+            message.setSubject(notification.getSubject());
+            message.setText(notification.getBody());
+
+            return message;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package app.service;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Retries failed emails in the background
+// - Due FAILED notifications are claimed in batches with SELECT ... FOR UPDATE SKIP LOCKED and set to PENDING in the same transaction,
+//   so several instances of the service can run it at once without sending the same email twice
+// - PENDING notifications whose next attempt is more than pendingTimeout in the past are claimed as well,
+//   their email was lost with a dead instance or a mail queue dropped on shutdown
+// - Every claim counts an attempt and moves the next attempt to now + initialBackoff * 2^(attempts - 1), capped at maxBackoff,
+//   when the email fails again MailDispatchEngine puts it back to FAILED and it waits until then
+// - After maxAttempts the notification stays FAILED, only the user's "retry" can send it again,
+//   an abandoned PENDING one that is out of attempts is set to FAILED at the start of every run
+// - Emails are sent by the MailDispatchEngine workers, the scheduler thread only claims and hands them over
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.retry.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationRetryScheduler {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final MailDispatchEngine mailDispatchEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification.retry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.retry.initial-backoff:1m}")
+    private Duration initialBackoff;
+
+    @Value("${notification.retry.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${notification.retry.pending-timeout:10m}")
+    private Duration pendingTimeout;
+
+    @Autowired
+    public NotificationRetryScheduler(NotificationRepository notificationRepository, NotificationPreferenceRepository preferenceRepository,
+                                      MailDispatchEngine mailDispatchEngine, PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.mailDispatchEngine = mailDispatchEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${notification.retry.initial-delay:30s}", fixedDelayString = "${notification.retry.delay:30s}")
+    public void retryFailedNotifications() {
+
+        int exhausted = notificationRepository.failExhaustedPending(maxAttempts, LocalDateTime.now().minus(pendingTimeout));
+        if (exhausted > 0) {
+            log.warn("%d abandoned notifications are out of retry attempts and were marked as failed.".formatted(exhausted));
+        }
+
+        List<Notification> claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> claim());
+            if (!claimed.isEmpty()) {
+                submit(claimed);
+            }
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<Notification> claim() {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = notificationRepository.lockDueNotifications(maxAttempts, now, now.minus(pendingTimeout), batchSize);
+
+        for (Notification notification : notifications) {
+            int attempts = notification.getAttempts() + 1;
+            notification.setAttempts(attempts);
+            notification.setNextAttemptOn(now.plus(backoff(attempts)));
+            notification.setStatus(NotificationStatus.PENDING);
+        }
+
+        return notifications;
+    }
+
+    private void submit(List<Notification> notifications) {
+
+        Map<UUID, NotificationPreference> preferencesByUserId = preferenceRepository.findAllByUserIdIn(notifications.stream().map(Notification::getUserId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(NotificationPreference::getUserId, Function.identity()));
+
+        for (Notification notification : notifications) {
+            NotificationPreference preference = preferencesByUserId.get(notification.getUserId());
+            if (preference == null || !preference.isEnabled()) {
+                notification.setStatus(NotificationStatus.FAILED);
+                notificationRepository.updateStatus(List.of(notification.getId()), NotificationStatus.PENDING, NotificationStatus.FAILED);
+                continue;
+            }
+
+            mailDispatchEngine.submit(notification, preference.getContactInfo());
+        }
+
+        log.info("Retrying %d failed notifications.".formatted(notifications.size()));
+    }
+
+    Duration backoff(int attempts) {
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
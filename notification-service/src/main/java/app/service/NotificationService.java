@@ -3,6 +3,7 @@ package app.service;
 import app.model.Notification;
 import app.model.NotificationPreference;
 import app.model.NotificationStatus;
+import app.model.NotificationStatusCount;
 import app.model.NotificationType;
 import app.repository.NotificationPreferenceRepository;
 import app.repository.NotificationRepository;
@@ -11,29 +12,34 @@ import app.web.dto.UpsertNotificationPreference;
 import app.web.mapper.DtoMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class NotificationService {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 50;
+
     private final NotificationPreferenceRepository preferenceRepository;
     private final NotificationRepository notificationRepository;
-    private final MailSender mailSender;
+    private final MailDispatchEngine mailDispatchEngine;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public NotificationService(NotificationPreferenceRepository preferenceRepository, NotificationRepository notificationRepository, MailSender mailSender) {
+    public NotificationService(NotificationPreferenceRepository preferenceRepository, NotificationRepository notificationRepository, MailDispatchEngine mailDispatchEngine,
+                               PlatformTransactionManager transactionManager) {
         this.preferenceRepository = preferenceRepository;
         this.notificationRepository = notificationRepository;
-        this.mailSender = mailSender;
+        this.mailDispatchEngine = mailDispatchEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public NotificationPreference upsertPreference(UpsertNotificationPreference dto) {
@@ -81,30 +87,77 @@ public class NotificationService {
             throw new IllegalArgumentException("User with id %s does not allow to receive notifications.".formatted(userId));
         }
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(userPreference.getContactInfo());
-        message.setSubject(notificationRequest.getSubject());
-        message.setText(notificationRequest.getBody());
-
-        // Entity building
+        // Entity building, next attempt is when NotificationRetryScheduler starts counting a lost email
+        LocalDateTime now = LocalDateTime.now();
         Notification notification = Notification.builder()
                 .subject(notificationRequest.getSubject())
                 .body(notificationRequest.getBody())
-                .createdOn(LocalDateTime.now())
+                .createdOn(now)
                 .userId(userId)
                 .deleted(false)
                 .type(NotificationType.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .nextAttemptOn(now)
                 .build();
 
-        try {
-            mailSender.send(message);
-            notification.setStatus(NotificationStatus.SUCCEEDED);
-        } catch (Exception e) {
-            notification.setStatus(NotificationStatus.FAILED);
-            log.warn("There was an issue sending an email to %s due to %s.".formatted(userPreference.getContactInfo(), e.getMessage()));
+        // Email is sent by MailDispatchEngine, which saves the final status (SUCCEEDED / FAILED)
+        notificationRepository.save(notification);
+        mailDispatchEngine.submit(notification, userPreference.getContactInfo());
+
+        return notification;
+    }
+
+    // Bulk version of sendNotification
+    // - Preferences of all users are loaded with one IN query
+    // - Requests for users without preference or with disabled notifications are skipped
+    // - Requests whose eventId already has a notification (or repeats in the batch) are skipped, Kafka may deliver an event again
+    // - Notifications are saved as PENDING with batched inserts and the emails are handed to MailDispatchEngine
+    public List<Notification> sendNotifications(List<NotificationRequest> notificationRequests) {
+
+        Set<UUID> userIds = notificationRequests.stream().map(NotificationRequest::getUserId).collect(Collectors.toSet());
+
+        Map<UUID, NotificationPreference> preferencesByUserId = preferenceRepository.findAllByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(NotificationPreference::getUserId, Function.identity()));
+
+        Set<UUID> eventIds = notificationRequests.stream().map(NotificationRequest::getEventId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<UUID> seenEventIds = eventIds.isEmpty() ? new HashSet<>() : new HashSet<>(notificationRepository.findExistingEventIds(eventIds));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>();
+        for (NotificationRequest notificationRequest : notificationRequests) {
+
+            UUID eventId = notificationRequest.getEventId();
+            if (eventId != null && !seenEventIds.add(eventId)) {
+                log.info("Skipping notification for event with id %s, it was already received.".formatted(eventId));
+                continue;
+            }
+
+            NotificationPreference userPreference = preferencesByUserId.get(notificationRequest.getUserId());
+            if (userPreference == null || !userPreference.isEnabled()) {
+                log.info("Skipping notification for user with id %s, notifications are not allowed.".formatted(notificationRequest.getUserId()));
+                continue;
+            }
+
+            notifications.add(Notification.builder()
+                    .subject(notificationRequest.getSubject())
+                    .body(notificationRequest.getBody())
+                    .createdOn(now)
+                    .userId(notificationRequest.getUserId())
+                    .deleted(false)
+                    .type(NotificationType.EMAIL)
+                    .status(NotificationStatus.PENDING)
+                    .nextAttemptOn(now)
+                    .eventId(eventId)
+                    .build());
         }
 
-        return notificationRepository.save(notification);
+        notificationRepository.saveAll(notifications);
+
+        for (Notification notification : notifications) {
+            mailDispatchEngine.submit(notification, preferencesByUserId.get(notification.getUserId()).getContactInfo());
+        }
+
+        return notifications;
     }
 
     public List<Notification> getNotificationHistory(UUID userId) {
@@ -112,6 +165,28 @@ public class NotificationService {
         return notificationRepository.findAllByUserIdAndDeletedIsFalse(userId);
     }
 
+    // Counts per status from one GROUP BY, statuses without notifications are 0
+    public Map<NotificationStatus, Long> getNotificationSummary(UUID userId) {
+
+        Map<NotificationStatus, Long> summary = new EnumMap<>(NotificationStatus.class);
+        for (NotificationStatus status : NotificationStatus.values()) {
+            summary.put(status, 0L);
+        }
+        for (NotificationStatusCount statusCount : notificationRepository.countByStatus(userId)) {
+            summary.put(statusCount.status(), statusCount.count());
+        }
+
+        return summary;
+    }
+
+    // One page of the history, newest first, size is capped so a client can't ask for the whole history at once
+    public List<Notification> getRecentNotifications(UUID userId, int page, int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+
+        return notificationRepository.findRecentByUserId(userId, PageRequest.of(Math.max(0, page), pageSize));
+    }
+
     public NotificationPreference changeNotificationPreference(UUID userId, boolean enabled) {
 
         // If exist - return NotificationPreference
@@ -121,14 +196,11 @@ public class NotificationService {
         return preferenceRepository.save(notificationPreference);
     }
 
+    // One UPDATE instead of loading and saving every notification
     public void clearNotifications(UUID userId) {
 
-        List<Notification> notifications = getNotificationHistory(userId);
-
-        notifications.forEach(notification -> {
-            notification.setDeleted(true);
-            notificationRepository.save(notification);
-        });
+        int deleted = notificationRepository.softDeleteAllByUserId(userId);
+        log.info("Cleared %d notifications of user with id %s.".formatted(deleted, userId));
     }
 
     public void retryFailedNotifications(UUID userId) {
@@ -138,25 +210,23 @@ public class NotificationService {
             throw new IllegalArgumentException("User with id %s does not allow to receive notifications.".formatted(userId));
         }
 
-        List<Notification> failedNotifications = notificationRepository.findAllByUserIdAndStatus(userId, NotificationStatus.FAILED);
-        failedNotifications = failedNotifications.stream().filter(notification ->  !notification.isDeleted()).toList();
+        // Claimed like NotificationRetryScheduler does, so a notification it's retrying at the same time is skipped and only sent once
+        List<Notification> failedNotifications = transactionTemplate.execute(status -> claimFailedNotifications(userId));
 
         for (Notification notification : failedNotifications) {
+            mailDispatchEngine.submit(notification, userPreference.getContactInfo());
+        }
+    }
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(userPreference.getContactInfo());
-            message.setSubject(notification.getSubject());
-            message.setText(notification.getBody());
-
-            try {
-                mailSender.send(message);
-                notification.setStatus(NotificationStatus.SUCCEEDED);
-            } catch (Exception e) {
-                notification.setStatus(NotificationStatus.FAILED);
-                log.warn("There was an issue sending an email to %s due to %s.".formatted(userPreference.getContactInfo(), e.getMessage()));
-            }
+    private List<Notification> claimFailedNotifications(UUID userId) {
 
-            notificationRepository.save(notification);
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = notificationRepository.lockFailedNotificationsByUserId(userId);
+        for (Notification notification : notifications) {
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setNextAttemptOn(now);
         }
+
+        return notifications;
     }
 }
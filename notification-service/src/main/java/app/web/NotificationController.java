@@ -68,6 +68,17 @@ public class NotificationController {
                 .body(response);
     }
 
+    @Operation(summary = "Send notifications to many users at once", description = "Returns accepted notifications, emails are sent in the background")
+    @PostMapping("/batch")
+    public ResponseEntity<List<NotificationResponse>> sendNotifications(@RequestBody List<NotificationRequest> notificationRequests) {
+
+        List<NotificationResponse> response = notificationService.sendNotifications(notificationRequests).stream().map(DtoMapper::fromNotification).toList();
+
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(response);
+    }
+
     @Operation(summary = "Gets users notification history", description = "Returns notifications that were sent to the user")
     @GetMapping
     public ResponseEntity<List<NotificationResponse>> getNotificationHistory(@RequestParam(name = "userId") UUID userId) {
@@ -79,6 +90,30 @@ public class NotificationController {
                 .body(notificationHistory);
     }
 
+    @Operation(summary = "Gets users notification counts by status", description = "Returns the number of succeeded, failed and pending notifications")
+    @GetMapping("/summary")
+    public ResponseEntity<NotificationSummaryResponse> getNotificationSummary(@RequestParam(name = "userId") UUID userId) {
+
+        NotificationSummaryResponse summary = DtoMapper.fromNotificationSummary(notificationService.getNotificationSummary(userId));
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(summary);
+    }
+
+    @Operation(summary = "Gets a page of users latest notifications", description = "Returns notifications newest first, at most 50 per page")
+    @GetMapping("/recent")
+    public ResponseEntity<List<NotificationResponse>> getRecentNotifications(@RequestParam(name = "userId") UUID userId,
+                                                                             @RequestParam(name = "page", defaultValue = "0") int page,
+                                                                             @RequestParam(name = "size", defaultValue = "5") int size) {
+
+        List<NotificationResponse> notifications = notificationService.getRecentNotifications(userId, page, size).stream().map(DtoMapper::fromNotification).toList();
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(notifications);
+    }
+
     @Operation(summary = "Change notification preference", description = "Returns changed notification preference")
     @PutMapping("/preferences")
     public ResponseEntity<NotificationPreferenceResponse> changeNotificationPreference(@RequestParam(name = "userId") UUID userId, @RequestParam(name = "enabled") boolean enabled) {
@@ -19,4 +19,7 @@ public class NotificationRequest {
 
     @NotBlank
     private String body;
+
+    // Set only for notifications made from Kafka events, used to skip redelivered ones
+    private UUID eventId;
 }
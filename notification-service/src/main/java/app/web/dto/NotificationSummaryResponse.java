@@ -0,0 +1,15 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NotificationSummaryResponse {
+
+    private long succeeded;
+
+    private long failed;
+
+    private long pending;
+}
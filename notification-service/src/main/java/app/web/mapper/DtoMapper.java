@@ -1,13 +1,21 @@
 package app.web.mapper;
 
+import app.event.NotificationEvent;
 import app.model.Notification;
 import app.model.NotificationPreference;
+import app.model.NotificationStatus;
 import app.model.NotificationType;
 import app.web.dto.NotificationPreferenceResponse;
+import app.web.dto.NotificationRequest;
 import app.web.dto.NotificationResponse;
+import app.web.dto.NotificationSummaryResponse;
 import app.web.dto.NotificationTypeRequest;
 import lombok.experimental.UtilityClass;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @UtilityClass
 public class DtoMapper {
 
@@ -41,4 +49,35 @@ public class DtoMapper {
                 .type(entity.getType())
                 .build();
     }
+
+    public static NotificationSummaryResponse fromNotificationSummary(Map<NotificationStatus, Long> summary) {
+
+        return NotificationSummaryResponse.builder()
+                .succeeded(summary.getOrDefault(NotificationStatus.SUCCEEDED, 0L))
+                .failed(summary.getOrDefault(NotificationStatus.FAILED, 0L))
+                .pending(summary.getOrDefault(NotificationStatus.PENDING, 0L))
+                .build();
+    }
+
+    // Email text for every domain event type, same wording the monolith used when it sent the text itself
+    public static NotificationRequest fromNotificationEvent(NotificationEvent event) {
+
+        NotificationRequest.NotificationRequestBuilder request = NotificationRequest.builder().userId(event.getUserId()).eventId(event.getEventId());
+
+        return switch (event.getType()) {
+            case DEPOSIT_COMPLETED -> Boolean.parseBoolean(event.attribute("successful"))
+                    ? request.subject("Your deposit has been successful!")
+                            .body("Thank you, %s! Funds were added to your account's balance.".formatted(event.attribute("username"))).build()
+                    : request.subject("Something went wrong!")
+                            .body("We apologize, %s! Funds weren't added to your account's balance. Please, try again later.".formatted(event.attribute("username"))).build();
+            case PURCHASE_COMPLETED -> request.subject("Thank you for the purchase!")
+                    .body("Thank you! Games were added to your library!%n%s".formatted(Arrays.stream(event.attribute("gameTitles").split("\n"))
+                            .map("- %s%n"::formatted)
+                            .collect(Collectors.joining()))).build();
+            case REVIEW_POSTED -> request.subject("Your review has been submitted.")
+                    .body("You've successfully added a review to the game %s.%nTitle: %s%nReview: %s%n".formatted(event.attribute("gameTitle"), event.attribute("title"), event.attribute("description"))).build();
+            case PROFILE_UPDATED -> request.subject("Your account's information has been updated.")
+                    .body("You've successfully updated your account information.\nEmail: %s\nUsername: %s\n".formatted(event.attribute("email"), event.attribute("username"))).build();
+        };
+    }
 }
@@ -0,0 +1,199 @@
+package app;
+
+import app.event.NotificationEvent;
+import app.event.NotificationEventType;
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.service.MailDispatchEngine;
+import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = {
+        "spring.kafka.listener.auto-startup=true",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 3, topics = "notification-events")
+public class NotificationEventListenerITest {
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @MockitoBean
+    private MailDispatchEngine mailDispatchEngine;
+
+    @MockitoSpyBean
+    private NotificationService notificationService;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        preferenceRepository.deleteAll();
+    }
+
+    @Test
+    void givenPublishedEvents_whenConsumed_thenEmailsAreSavedAndSubmittedOnlyForUsersWithEnabledNotifications() {
+
+        // Given
+        UUID enabledUserId = aPreference(true);
+        UUID disabledUserId = aPreference(false);
+        KafkaTemplate<String, NotificationEvent> kafkaTemplate = aKafkaTemplate();
+
+        // When
+        kafkaTemplate.send("notification-events", enabledUserId.toString(), anEvent(enabledUserId, NotificationEventType.PURCHASE_COMPLETED, Map.of("username", "user", "gameTitles", "Elden Ring\nDota 2")));
+        kafkaTemplate.send("notification-events", enabledUserId.toString(), anEvent(enabledUserId, NotificationEventType.REVIEW_POSTED, Map.of("gameTitle", "Elden Ring", "title", "Great", "description", "Loved it")));
+        kafkaTemplate.send("notification-events", disabledUserId.toString(), anEvent(disabledUserId, NotificationEventType.DEPOSIT_COMPLETED, Map.of("username", "user", "amount", "5", "successful", "true")));
+        kafkaTemplate.flush();
+
+        // Then
+        verify(mailDispatchEngine, timeout(15000).times(2)).submit(any(), eq("user@newellgames.com"));
+        List<Notification> notifications = notificationRepository.findAllByUserIdAndDeletedIsFalse(enabledUserId);
+        assertThat(notifications).extracting(Notification::getSubject)
+                .containsExactlyInAnyOrder("Thank you for the purchase!", "Your review has been submitted.");
+        assertThat(notifications).allMatch(notification -> notification.getStatus() == NotificationStatus.PENDING);
+        assertThat(notifications).anyMatch(notification -> notification.getBody().contains("- Elden Ring") && notification.getBody().contains("- Dota 2"));
+        assertThat(notificationRepository.findAllByUserIdAndDeletedIsFalse(disabledUserId)).isEmpty();
+    }
+
+    @Test
+    void givenRedeliveredEvent_whenConsumed_thenOnlyOneNotificationIsSavedAndEmailed() {
+
+        // Given
+        UUID userId = aPreference(true);
+        NotificationEvent event = anEvent(userId, NotificationEventType.REVIEW_POSTED, Map.of("gameTitle", "Elden Ring", "title", "Great", "description", "Loved it"));
+        KafkaTemplate<String, NotificationEvent> kafkaTemplate = aKafkaTemplate();
+
+        // When - the relay published it, crashed before marking it as sent and published it again
+        kafkaTemplate.send("notification-events", userId.toString(), event);
+        kafkaTemplate.flush();
+        verify(mailDispatchEngine, timeout(15000).times(1)).submit(any(), eq("user@newellgames.com"));
+        kafkaTemplate.send("notification-events", userId.toString(), event);
+        kafkaTemplate.send("notification-events", userId.toString(), anEvent(userId, NotificationEventType.PROFILE_UPDATED, Map.of("email", "user@newellgames.com", "username", "user")));
+        kafkaTemplate.flush();
+
+        // Then
+        verify(mailDispatchEngine, timeout(15000).times(2)).submit(any(), eq("user@newellgames.com"));
+        List<Notification> notifications = notificationRepository.findAllByUserIdAndDeletedIsFalse(userId);
+        assertThat(notifications).extracting(Notification::getSubject)
+                .containsExactlyInAnyOrder("Your review has been submitted.", "Your account's information has been updated.");
+        assertThat(notifications).extracting(Notification::getEventId).contains(event.getEventId());
+    }
+
+    @Test
+    void givenLongEmails_whenConsumed_thenTheWholeBodyIsSaved() {
+
+        // Given
+        UUID userId = aPreference(true);
+        String gameTitles = IntStream.range(0, 100).mapToObj("Game with a fairly long title %03d"::formatted).collect(Collectors.joining("\n"));
+        String description = "d".repeat(255);
+        KafkaTemplate<String, NotificationEvent> kafkaTemplate = aKafkaTemplate();
+
+        // When
+        kafkaTemplate.send("notification-events", userId.toString(), anEvent(userId, NotificationEventType.PURCHASE_COMPLETED, Map.of("username", "user", "gameTitles", gameTitles)));
+        kafkaTemplate.send("notification-events", userId.toString(), anEvent(userId, NotificationEventType.REVIEW_POSTED, Map.of("gameTitle", "Elden Ring", "title", "Great", "description", description)));
+        kafkaTemplate.flush();
+
+        // Then
+        verify(mailDispatchEngine, timeout(15000).times(2)).submit(any(), eq("user@newellgames.com"));
+        List<Notification> notifications = notificationRepository.findAllByUserIdAndDeletedIsFalse(userId);
+        assertThat(notifications).anyMatch(notification -> notification.getBody().contains("- Game with a fairly long title 099") && notification.getBody().length() > 3000);
+        assertThat(notifications).anyMatch(notification -> notification.getBody().contains(description));
+    }
+
+    @Test
+    void givenEventThatCantBeSaved_whenConsumed_thenOnlyThatEventFailsAndTheRestOfTheBatchIsEmailed() {
+
+        // Given
+        UUID userId = aPreference(true);
+        UUID brokenUserId = aPreference(true);
+        doThrow(new IllegalStateException("database rejected the notification"))
+                .when(notificationService).sendNotifications(argThat((List<NotificationRequest> requests) -> requests.stream().anyMatch(request -> request.getUserId().equals(brokenUserId))));
+        KafkaTemplate<String, NotificationEvent> kafkaTemplate = aKafkaTemplate();
+
+        // When - one key, so all three land on one partition in this order
+        kafkaTemplate.send("notification-events", "key", anEvent(userId, NotificationEventType.PURCHASE_COMPLETED, Map.of("username", "user", "gameTitles", "Elden Ring")));
+        kafkaTemplate.send("notification-events", "key", anEvent(brokenUserId, NotificationEventType.PURCHASE_COMPLETED, Map.of("username", "user", "gameTitles", "Dota 2")));
+        kafkaTemplate.send("notification-events", "key", anEvent(userId, NotificationEventType.REVIEW_POSTED, Map.of("gameTitle", "Elden Ring", "title", "Great", "description", "Loved it")));
+        kafkaTemplate.flush();
+
+        // Then - the error handler gives up on the broken record and moves on, nobody gets an email twice
+        verify(mailDispatchEngine, timeout(15000).times(2)).submit(any(), eq("user@newellgames.com"));
+        verify(mailDispatchEngine, after(1000).times(2)).submit(any(), any());
+        assertThat(notificationRepository.findAllByUserIdAndDeletedIsFalse(userId)).extracting(Notification::getSubject)
+                .containsExactlyInAnyOrder("Thank you for the purchase!", "Your review has been submitted.");
+        assertThat(notificationRepository.findAllByUserIdAndDeletedIsFalse(brokenUserId)).isEmpty();
+    }
+
+    private KafkaTemplate<String, NotificationEvent> aKafkaTemplate() {
+
+        Map<String, Object> properties = KafkaTestUtils.producerProps(embeddedKafkaBroker);
+        JsonSerializer<NotificationEvent> valueSerializer = new JsonSerializer<>();
+        valueSerializer.setAddTypeInfo(false);
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(properties, new StringSerializer(), valueSerializer));
+    }
+
+    private NotificationEvent anEvent(UUID userId, NotificationEventType type, Map<String, String> attributes) {
+
+        return NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .type(type)
+                .userId(userId)
+                .occurredOn(LocalDateTime.now())
+                .attributes(attributes)
+                .build();
+    }
+
+    private UUID aPreference(boolean enabled) {
+
+        UUID userId = UUID.randomUUID();
+        preferenceRepository.save(NotificationPreference.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .enabled(enabled)
+                .contactInfo("user@newellgames.com")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        return userId;
+    }
+}
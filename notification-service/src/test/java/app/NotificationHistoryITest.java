@@ -0,0 +1,137 @@
+package app;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.service.MailDispatchEngine;
+import app.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.mail.MailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class NotificationHistoryITest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @MockitoBean
+    private MailDispatchEngine mailDispatchEngine;
+
+    // The in-memory database outlives this test's context (ddl-auto=update), so other ITests shouldn't see these rows
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        preferenceRepository.deleteAll();
+    }
+
+    @Test
+    void givenHistory_whenClearNotifications_thenOnlyTheUsersNotificationsAreSoftDeleted() {
+
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            notifications.add(aNotification(userId, i % 2 == 0 ? NotificationStatus.SUCCEEDED : NotificationStatus.FAILED, false));
+        }
+        notifications.add(aNotification(otherUserId, NotificationStatus.SUCCEEDED, false));
+        notificationRepository.saveAll(notifications);
+
+        // When
+        notificationService.clearNotifications(userId);
+
+        // Then
+        assertThat(notificationRepository.findAllByUserIdAndDeletedIsFalse(userId)).isEmpty();
+        assertThat(notificationRepository.findAllByUserIdAndDeletedIsFalse(otherUserId)).hasSize(1);
+    }
+
+    @Test
+    void givenFailedAndDeletedNotifications_whenRetryFailedNotifications_thenOnlyNotDeletedFailedOnesAreRetried() {
+
+        // Given
+        UUID userId = UUID.randomUUID();
+        preferenceRepository.save(NotificationPreference.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .enabled(true)
+                .contactInfo("user@newellgames.com")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        Notification failed = notificationRepository.save(aNotification(userId, NotificationStatus.FAILED, false));
+        Notification deletedFailed = notificationRepository.save(aNotification(userId, NotificationStatus.FAILED, true));
+        Notification succeeded = notificationRepository.save(aNotification(userId, NotificationStatus.SUCCEEDED, false));
+
+        // When
+        notificationService.retryFailedNotifications(userId);
+
+        // Then
+        assertThat(notificationRepository.findById(failed.getId()).orElseThrow().getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(notificationRepository.findById(deletedFailed.getId()).orElseThrow().getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(notificationRepository.findById(succeeded.getId()).orElseThrow().getStatus()).isEqualTo(NotificationStatus.SUCCEEDED);
+        verify(mailDispatchEngine, times(1)).submit(any(), eq("user@newellgames.com"));
+    }
+
+    @Test
+    void givenHistoryClearedWhileAnEmailIsQueued_whenTheEmailIsSent_thenTheNotificationStaysDeleted() throws InterruptedException {
+
+        // Given - the engine holds the entity from before the history was cleared
+        UUID userId = UUID.randomUUID();
+        Notification queued = notificationRepository.save(aNotification(userId, NotificationStatus.PENDING, false));
+        notificationRepository.softDeleteAllByUserId(userId);
+        MailDispatchEngine engine = new MailDispatchEngine(notificationRepository, mock(MailSender.class), 1, 10, 10, Duration.ofSeconds(1));
+        engine.start();
+
+        // When
+        engine.submit(queued, "user@newellgames.com");
+        engine.stop();
+
+        // Then
+        Notification reloaded = notificationRepository.findById(queued.getId()).orElseThrow();
+        assertThat(reloaded.isDeleted()).isTrue();
+        assertThat(reloaded.getStatus()).isEqualTo(NotificationStatus.SUCCEEDED);
+    }
+
+    private Notification aNotification(UUID userId, NotificationStatus status, boolean deleted) {
+
+        return Notification.builder()
+                .userId(userId)
+                .subject("subject")
+                .body("body")
+                .type(NotificationType.EMAIL)
+                .status(status)
+                .createdOn(LocalDateTime.now())
+                .deleted(deleted)
+                .build();
+    }
+}
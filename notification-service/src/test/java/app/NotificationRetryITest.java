@@ -0,0 +1,236 @@
+package app;
+
+import app.model.Notification;
+import app.model.NotificationPreference;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationPreferenceRepository;
+import app.repository.NotificationRepository;
+import app.service.MailDispatchEngine;
+import app.service.NotificationRetryScheduler;
+import app.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+@TestPropertySource(properties = {
+        "notification.retry.enabled=true",
+        "notification.retry.initial-delay=1h",
+        "notification.retry.max-attempts=3",
+        "notification.retry.initial-backoff=1m",
+        "notification.retry.pending-timeout=10m"
+})
+public class NotificationRetryITest {
+
+    @Autowired
+    private NotificationRetryScheduler notificationRetryScheduler;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private MailDispatchEngine mailDispatchEngine;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        preferenceRepository.deleteAll();
+    }
+
+    @Test
+    void givenFailedNotifications_whenRetry_thenOnlyDueOnesAreClaimedWithBackoffAndHandedToTheEngine() {
+
+        // Given
+        UUID userId = anEnabledPreference();
+        LocalDateTime now = LocalDateTime.now();
+        Notification due = notificationRepository.save(aFailedNotification(userId, 0, null, false));
+        Notification notYetDue = notificationRepository.save(aFailedNotification(userId, 1, now.plusMinutes(10), false));
+        Notification exhausted = notificationRepository.save(aFailedNotification(userId, 3, now.minusMinutes(10), false));
+        Notification deleted = notificationRepository.save(aFailedNotification(userId, 0, null, true));
+
+        // When
+        notificationRetryScheduler.retryFailedNotifications();
+
+        // Then
+        Notification claimed = notificationRepository.findById(due.getId()).orElseThrow();
+        assertEquals(NotificationStatus.PENDING, claimed.getStatus());
+        assertEquals(1, claimed.getAttempts());
+        assertThat(claimed.getNextAttemptOn()).isAfter(now.plusSeconds(50));
+        for (Notification untouched : List.of(notYetDue, exhausted, deleted)) {
+            assertEquals(NotificationStatus.FAILED, notificationRepository.findById(untouched.getId()).orElseThrow().getStatus());
+        }
+        verify(mailDispatchEngine, times(1)).submit(argThat(notification -> notification.getId().equals(due.getId())), eq("user@newellgames.com"));
+    }
+
+    @Test
+    void givenRowsLockedByAnotherInstance_whenRetry_thenTheyAreSkipped() throws Exception {
+
+        // Given - another instance holds the row locks of its claim
+        UUID userId = anEnabledPreference();
+        notificationRepository.save(aFailedNotification(userId, 0, null, false));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> otherInstance = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            int claimed = notificationRepository.lockDueNotifications(3, LocalDateTime.now(), LocalDateTime.now().minusMinutes(10), 10).size();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return claimed;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // When
+        notificationRetryScheduler.retryFailedNotifications();
+        release.countDown();
+
+        // Then
+        assertEquals(1, otherInstance.get(10, TimeUnit.SECONDS));
+        verify(mailDispatchEngine, never()).submit(any(), anyString());
+    }
+
+    @Test
+    void givenPendingNotifications_whenRetry_thenOnlyTheAbandonedOneIsReclaimed() {
+
+        // Given - the abandoned one was queued by an instance that died 15 minutes ago
+        UUID userId = anEnabledPreference();
+        LocalDateTime now = LocalDateTime.now();
+        Notification abandoned = aFailedNotification(userId, 0, now.minusMinutes(15), false);
+        abandoned.setStatus(NotificationStatus.PENDING);
+        abandoned = notificationRepository.save(abandoned);
+        Notification queued = aFailedNotification(userId, 0, now.minusMinutes(1), false);
+        queued.setStatus(NotificationStatus.PENDING);
+        queued = notificationRepository.save(queued);
+
+        // When
+        notificationRetryScheduler.retryFailedNotifications();
+
+        // Then
+        Notification reclaimed = notificationRepository.findById(abandoned.getId()).orElseThrow();
+        assertEquals(1, reclaimed.getAttempts());
+        assertThat(reclaimed.getNextAttemptOn()).isAfter(now);
+        assertEquals(0, notificationRepository.findById(queued.getId()).orElseThrow().getAttempts());
+        UUID abandonedId = abandoned.getId();
+        verify(mailDispatchEngine, times(1)).submit(argThat(notification -> notification.getId().equals(abandonedId)), eq("user@newellgames.com"));
+    }
+
+    @Test
+    void givenAbandonedPendingNotificationOutOfAttempts_whenRetry_thenItIsMarkedFailedInsteadOfClaimed() {
+
+        // Given - both were claimed for the last time, the first by an instance that died 15 minutes ago
+        UUID userId = anEnabledPreference();
+        LocalDateTime now = LocalDateTime.now();
+        Notification abandoned = aFailedNotification(userId, 3, now.minusMinutes(15), false);
+        abandoned.setStatus(NotificationStatus.PENDING);
+        abandoned = notificationRepository.save(abandoned);
+        Notification queued = aFailedNotification(userId, 3, now.minusMinutes(1), false);
+        queued.setStatus(NotificationStatus.PENDING);
+        queued = notificationRepository.save(queued);
+
+        // When
+        notificationRetryScheduler.retryFailedNotifications();
+
+        // Then
+        Notification givenUp = notificationRepository.findById(abandoned.getId()).orElseThrow();
+        assertEquals(NotificationStatus.FAILED, givenUp.getStatus());
+        assertEquals(3, givenUp.getAttempts());
+        assertEquals(NotificationStatus.PENDING, notificationRepository.findById(queued.getId()).orElseThrow().getStatus());
+        verify(mailDispatchEngine, never()).submit(any(), anyString());
+    }
+
+    @Test
+    void givenRowsClaimedByTheScheduler_whenManualRetry_thenTheyAreNotSentAgain() throws Exception {
+
+        // Given - the scheduler holds the row locks of its claim
+        UUID userId = anEnabledPreference();
+        notificationRepository.save(aFailedNotification(userId, 0, null, false));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> scheduler = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            int claimed = notificationRepository.lockDueNotifications(3, LocalDateTime.now(), LocalDateTime.now().minusMinutes(10), 10).size();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return claimed;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // When
+        notificationService.retryFailedNotifications(userId);
+        release.countDown();
+
+        // Then
+        assertEquals(1, scheduler.get(10, TimeUnit.SECONDS));
+        verify(mailDispatchEngine, never()).submit(any(), anyString());
+    }
+
+    private UUID anEnabledPreference() {
+
+        UUID userId = UUID.randomUUID();
+        preferenceRepository.save(NotificationPreference.builder()
+                .userId(userId)
+                .type(NotificationType.EMAIL)
+                .enabled(true)
+                .contactInfo("user@newellgames.com")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+
+        return userId;
+    }
+
+    private Notification aFailedNotification(UUID userId, int attempts, LocalDateTime nextAttemptOn, boolean deleted) {
+
+        return Notification.builder()
+                .userId(userId)
+                .subject("subject")
+                .body("body")
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.FAILED)
+                .createdOn(LocalDateTime.now())
+                .attempts(attempts)
+                .nextAttemptOn(nextAttemptOn)
+                .deleted(deleted)
+                .build();
+    }
+}
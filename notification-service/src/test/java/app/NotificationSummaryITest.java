@@ -0,0 +1,88 @@
+package app;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import app.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class NotificationSummaryITest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void givenNotificationsWithDifferentStatuses_whenGetNotificationSummary_thenNotDeletedOnesAreCountedPerStatus() {
+
+        // Given
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.saveAll(List.of(
+                aNotification("subject", userId, NotificationStatus.SUCCEEDED, now, false),
+                aNotification("subject", userId, NotificationStatus.SUCCEEDED, now, false),
+                aNotification("subject", userId, NotificationStatus.FAILED, now, false),
+                aNotification("subject", userId, NotificationStatus.FAILED, now, true),
+                aNotification("subject", UUID.randomUUID(), NotificationStatus.FAILED, now, false)));
+
+        // When
+        Map<NotificationStatus, Long> summary = notificationService.getNotificationSummary(userId);
+
+        // Then
+        assertEquals(2L, summary.get(NotificationStatus.SUCCEEDED));
+        assertEquals(1L, summary.get(NotificationStatus.FAILED));
+        assertEquals(0L, summary.get(NotificationStatus.PENDING));
+    }
+
+    @Test
+    void givenManyNotifications_whenGetRecentNotifications_thenPagesAreNewestFirst() {
+
+        // Given
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 7; i++) {
+            notificationRepository.save(aNotification(String.valueOf(i), userId, NotificationStatus.SUCCEEDED, now.minusMinutes(i), false));
+        }
+
+        // When
+        List<Notification> firstPage = notificationService.getRecentNotifications(userId, 0, 5);
+        List<Notification> secondPage = notificationService.getRecentNotifications(userId, 1, 5);
+
+        // Then
+        assertThat(firstPage).hasSize(5);
+        assertThat(secondPage).hasSize(2);
+        assertThat(firstPage).extracting(Notification::getSubject).containsExactly("0", "1", "2", "3", "4");
+        assertThat(secondPage).extracting(Notification::getSubject).containsExactly("5", "6");
+    }
+
+    private Notification aNotification(String subject, UUID userId, NotificationStatus status, LocalDateTime createdOn, boolean deleted) {
+
+        return Notification.builder()
+                .userId(userId)
+                .subject(subject)
+                .body("body")
+                .type(NotificationType.EMAIL)
+                .status(status)
+                .createdOn(createdOn)
+                .deleted(deleted)
+                .build();
+    }
+}
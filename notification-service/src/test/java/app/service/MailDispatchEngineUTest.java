@@ -0,0 +1,109 @@
+package app.service;
+
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
+import app.repository.NotificationRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MailDispatchEngineUTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+
+    private MailDispatchEngine engine;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void givenManyNotifications_whenSubmit_thenAllEmailsAreDeliveredAndMarkedAsSucceeded() throws InterruptedException {
+
+        // Given
+        engine = new MailDispatchEngine(notificationRepository, mailSender(), 2, 100, 10, Duration.ofSeconds(1));
+        engine.start();
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            notifications.add(aPendingNotification());
+        }
+
+        // When
+        notifications.forEach(notification -> assertTrue(engine.submit(notification, "user@newellgames.com")));
+
+        // Then
+        assertTrue(greenMail.waitForIncomingEmail(5000, 25));
+        engine.stop();
+        assertEquals(25, greenMail.getReceivedMessages().length);
+        assertTrue(notifications.stream().allMatch(notification -> notification.getStatus() == NotificationStatus.SUCCEEDED));
+        verify(notificationRepository, atLeastOnce()).updateStatus(anyList(), eq(NotificationStatus.PENDING), eq(NotificationStatus.SUCCEEDED));
+        verify(notificationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void givenFullQueue_whenSubmit_thenNotificationIsMarkedAsFailed() {
+
+        // Given - the engine is not started, so nothing takes jobs from the queue
+        engine = null;
+        MailDispatchEngine notStartedEngine = new MailDispatchEngine(notificationRepository, mailSender(), 1, 1, 10, Duration.ofMillis(10));
+        Notification queued = aPendingNotification();
+        Notification rejected = aPendingNotification();
+
+        // When
+        boolean queuedAccepted = notStartedEngine.submit(queued, "user@newellgames.com");
+        boolean rejectedAccepted = notStartedEngine.submit(rejected, "user@newellgames.com");
+
+        // Then
+        assertTrue(queuedAccepted);
+        assertFalse(rejectedAccepted);
+        assertEquals(1, notStartedEngine.getQueueSize());
+        assertEquals(NotificationStatus.PENDING, queued.getStatus());
+        assertEquals(NotificationStatus.FAILED, rejected.getStatus());
+        verify(notificationRepository, times(1)).updateStatus(List.of(rejected.getId()), NotificationStatus.PENDING, NotificationStatus.FAILED);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    private JavaMailSenderImpl mailSender() {
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+
+        return mailSender;
+    }
+
+    private Notification aPendingNotification() {
+
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .subject("subject")
+                .body("body")
+                .type(NotificationType.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
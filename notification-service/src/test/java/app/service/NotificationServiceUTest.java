@@ -1,6 +1,8 @@
 package app.service;
 
+import app.model.Notification;
 import app.model.NotificationPreference;
+import app.model.NotificationStatus;
 import app.repository.NotificationPreferenceRepository;
 import app.repository.NotificationRepository;
 import org.junit.jupiter.api.Test;
@@ -8,11 +10,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.MailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import app.web.dto.NotificationRequest;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static app.TestBuilder.aRandomNotificationPreference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -25,7 +35,9 @@ public class NotificationServiceUTest {
     @Mock
     private NotificationRepository notificationRepository;
     @Mock
-    private MailSender mailSender;
+    private MailDispatchEngine mailDispatchEngine;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private NotificationService notificationService;
@@ -60,4 +72,92 @@ public class NotificationServiceUTest {
         verify(preferenceRepository, times(1)).save(preference);
     }
 
+    @Test
+    void givenBatchOfRequests_whenSendNotifications_thenOnlyUsersWithEnabledPreferenceAreNotified() {
+
+        // Given
+        NotificationPreference enabledPreference = aRandomNotificationPreference();
+        NotificationPreference disabledPreference = aRandomNotificationPreference();
+        disabledPreference.setEnabled(false);
+        UUID userWithoutPreference = UUID.randomUUID();
+
+        List<NotificationRequest> requests = List.of(
+                NotificationRequest.builder().userId(enabledPreference.getUserId()).subject("subject").body("body").build(),
+                NotificationRequest.builder().userId(disabledPreference.getUserId()).subject("subject").body("body").build(),
+                NotificationRequest.builder().userId(userWithoutPreference).subject("subject").body("body").build()
+        );
+        when(preferenceRepository.findAllByUserIdIn(any())).thenReturn(List.of(enabledPreference, disabledPreference));
+
+        // When
+        List<Notification> notifications = notificationService.sendNotifications(requests);
+
+        // Then
+        assertThat(notifications).hasSize(1);
+        assertEquals(enabledPreference.getUserId(), notifications.get(0).getUserId());
+        assertEquals(NotificationStatus.PENDING, notifications.get(0).getStatus());
+        verify(preferenceRepository, times(1)).findAllByUserIdIn(any());
+        verify(preferenceRepository, never()).findByUserId(any());
+        verify(notificationRepository, times(1)).saveAll(notifications);
+        verify(mailDispatchEngine, times(1)).submit(notifications.get(0), enabledPreference.getContactInfo());
+    }
+
+    @Test
+    void givenAlreadyReceivedAndRepeatedEvents_whenSendNotifications_thenEachEventIsNotifiedOnce() {
+
+        // Given
+        NotificationPreference preference = aRandomNotificationPreference();
+        UUID receivedEventId = UUID.randomUUID();
+        UUID newEventId = UUID.randomUUID();
+
+        List<NotificationRequest> requests = List.of(
+                NotificationRequest.builder().userId(preference.getUserId()).subject("subject").body("body").eventId(receivedEventId).build(),
+                NotificationRequest.builder().userId(preference.getUserId()).subject("subject").body("body").eventId(newEventId).build(),
+                NotificationRequest.builder().userId(preference.getUserId()).subject("subject").body("body").eventId(newEventId).build()
+        );
+        when(preferenceRepository.findAllByUserIdIn(any())).thenReturn(List.of(preference));
+        when(notificationRepository.findExistingEventIds(any())).thenReturn(List.of(receivedEventId));
+
+        // When
+        List<Notification> notifications = notificationService.sendNotifications(requests);
+
+        // Then
+        assertThat(notifications).extracting(Notification::getEventId).containsExactly(newEventId);
+        verify(mailDispatchEngine, times(1)).submit(notifications.get(0), preference.getContactInfo());
+    }
+
+    @Test
+    void givenEnabledPreference_whenSendNotification_thenNotificationIsSavedAsPendingAndSubmittedToTheEngine() {
+
+        // Given
+        NotificationPreference preference = aRandomNotificationPreference();
+        NotificationRequest request = NotificationRequest.builder().userId(preference.getUserId()).subject("subject").body("body").build();
+        when(preferenceRepository.findByUserId(preference.getUserId())).thenReturn(Optional.of(preference));
+
+        // When
+        Notification notification = notificationService.sendNotification(request);
+
+        // Then
+        assertEquals(NotificationStatus.PENDING, notification.getStatus());
+        assertNotNull(notification.getNextAttemptOn());
+        verify(notificationRepository, times(1)).save(notification);
+        verify(mailDispatchEngine, times(1)).submit(notification, preference.getContactInfo());
+    }
+
+    @Test
+    void givenFailedNotifications_whenRetryFailedNotifications_thenOnlyTheClaimedOnesAreSubmitted() {
+
+        // Given - the other failed notification is locked by NotificationRetryScheduler, so the claim doesn't return it
+        NotificationPreference preference = aRandomNotificationPreference();
+        Notification claimed = Notification.builder().id(UUID.randomUUID()).userId(preference.getUserId()).status(NotificationStatus.FAILED).build();
+        when(preferenceRepository.findByUserId(preference.getUserId())).thenReturn(Optional.of(preference));
+        when(notificationRepository.lockFailedNotificationsByUserId(preference.getUserId())).thenReturn(List.of(claimed));
+
+        // When
+        notificationService.retryFailedNotifications(preference.getUserId());
+
+        // Then
+        assertEquals(NotificationStatus.PENDING, claimed.getStatus());
+        verify(mailDispatchEngine, times(1)).submit(claimed, preference.getContactInfo());
+        verify(notificationRepository, never()).updateStatus(any(), any(), any());
+    }
 }
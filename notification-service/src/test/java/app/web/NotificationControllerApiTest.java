@@ -1,6 +1,10 @@
 package app.web;
 
+import app.model.Notification;
+import app.model.NotificationStatus;
+import app.model.NotificationType;
 import app.service.NotificationService;
+import app.web.dto.NotificationRequest;
 import app.web.dto.NotificationTypeRequest;
 import app.web.dto.UpsertNotificationPreference;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -13,10 +17,14 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static app.TestBuilder.aRandomNotificationPreference;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -73,4 +81,70 @@ public class NotificationControllerApiTest {
                 .andExpect(jsonPath("enabled").isNotEmpty())
                 .andExpect(jsonPath("contactInfo").isNotEmpty());
     }
+
+    @Test
+    void postBatchOfNotifications_returns202AndAcceptedNotifications() throws Exception {
+
+        // 1. Build Request
+        List<NotificationRequest> requestDto = List.of(NotificationRequest.builder()
+                .userId(UUID.randomUUID())
+                .subject("subject")
+                .body("body")
+                .build());
+        Notification notification = Notification.builder()
+                .subject("subject")
+                .body("body")
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.PENDING)
+                .type(NotificationType.EMAIL)
+                .build();
+        when(notificationService.sendNotifications(any())).thenReturn(List.of(notification));
+        MockHttpServletRequestBuilder request = post("/api/v1/notifications/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsBytes(requestDto));
+
+        // 2. Send Request
+        mockMvc.perform(request)
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$[0].subject").value("subject"))
+                .andExpect(jsonPath("$[0].status").value("PENDING"));
+    }
+
+    @Test
+    void getRequestNotificationSummary_returnsCountsPerStatus() throws Exception {
+
+        // 1. Build Request
+        when(notificationService.getNotificationSummary(any())).thenReturn(Map.of(NotificationStatus.SUCCEEDED, 3L, NotificationStatus.FAILED, 1L, NotificationStatus.PENDING, 0L));
+        MockHttpServletRequestBuilder request = get("/api/v1/notifications/summary").param("userId", UUID.randomUUID().toString());
+
+        // 2. Send Request
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("succeeded").value(3))
+                .andExpect(jsonPath("failed").value(1))
+                .andExpect(jsonPath("pending").value(0));
+    }
+
+    @Test
+    void getRequestRecentNotifications_returnsRequestedPage() throws Exception {
+
+        // 1. Build Request
+        Notification notification = Notification.builder()
+                .subject("subject")
+                .body("body")
+                .createdOn(LocalDateTime.now())
+                .status(NotificationStatus.SUCCEEDED)
+                .type(NotificationType.EMAIL)
+                .build();
+        when(notificationService.getRecentNotifications(any(), eq(1), eq(5))).thenReturn(List.of(notification));
+        MockHttpServletRequestBuilder request = get("/api/v1/notifications/recent")
+                .param("userId", UUID.randomUUID().toString())
+                .param("page", "1");
+
+        // 2. Send Request
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].subject").value("subject"))
+                .andExpect(jsonPath("$[0].status").value("SUCCEEDED"));
+    }
 }
@@ -0,0 +1,43 @@
+package app.newellgames.balance.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Append-only ledger of every balance change, entries are never updated or deleted
+// - amount is signed, credits are positive and debits are negative
+// - transactionId links the entry to the Transaction it was made for (null for opening balances and adjustments)
+@Entity
+@Immutable
+@Table(name = "balance_entries", indexes = {
+        @Index(name = "idx_balance_entries_user_id", columnList = "userId"),
+        @Index(name = "idx_balance_entries_transaction_id", columnList = "transactionId")
+})
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BalanceEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private BigDecimal balanceAfter;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
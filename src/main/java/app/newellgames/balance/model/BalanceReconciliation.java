@@ -0,0 +1,28 @@
+package app.newellgames.balance.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Result of checking a user's balance against the ledger and the ledger against the successful transactions
+@Getter
+@Builder
+@AllArgsConstructor
+public class BalanceReconciliation {
+
+    private final UUID userId;
+
+    private final BigDecimal balance;
+
+    private final BigDecimal ledgerTotal;
+
+    // Successful deposits / purchases that have no ledger entry
+    private final long unmatchedTransactions;
+
+    public boolean isConsistent() {
+        return balance.compareTo(ledgerTotal) == 0 && unmatchedTransactions == 0;
+    }
+}
@@ -0,0 +1,28 @@
+package app.newellgames.balance.repository;
+
+import app.newellgames.balance.model.BalanceEntry;
+import app.newellgames.transaction.model.TransactionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BalanceEntryRepository extends JpaRepository<BalanceEntry, UUID> {
+
+    List<BalanceEntry> findAllByUserIdOrderByCreatedOnAsc(UUID userId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM BalanceEntry e WHERE e.userId = :userId")
+    BigDecimal sumByUserId(@Param("userId") UUID userId);
+
+    @Query("""
+            SELECT COUNT(t) FROM Transaction t
+            WHERE t.owner.id = :userId AND t.status = :status
+              AND NOT EXISTS (SELECT e FROM BalanceEntry e WHERE e.transactionId = t.id)
+            """)
+    long countTransactionsWithoutEntry(@Param("userId") UUID userId, @Param("status") TransactionStatus status);
+}
@@ -0,0 +1,101 @@
+package app.newellgames.balance.service;
+
+import app.newellgames.balance.model.BalanceEntry;
+import app.newellgames.balance.model.BalanceReconciliation;
+import app.newellgames.balance.repository.BalanceEntryRepository;
+import app.newellgames.exception.DomainException;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Owns every change of User.balance
+// - balance is changed only with one atomic UPDATE (balance = balance +/- amount), never read-modify-write in Java,
+//   so parallel deposits and purchases on the same account can't overwrite each other
+// - a debit has the check in the UPDATE itself (balance >= amount), 0 updated rows means insufficient funds
+// - every change appends a BalanceEntry in the same transaction
+@Service
+public class BalanceService {
+
+    private final UserRepository userRepository;
+    private final BalanceEntryRepository balanceEntryRepository;
+
+    @Autowired
+    public BalanceService(UserRepository userRepository, BalanceEntryRepository balanceEntryRepository) {
+        this.userRepository = userRepository;
+        this.balanceEntryRepository = balanceEntryRepository;
+    }
+
+    // Adds the amount to the balance and returns the new balance
+    @Transactional
+    public BigDecimal credit(UUID userId, BigDecimal amount, UUID transactionId) {
+        if (amount.signum() < 0) {
+            throw new DomainException("Credit amount [%s] can't be negative.".formatted(amount));
+        }
+
+        if (userRepository.creditBalance(userId, amount) == 0) {
+            throw new DomainException("User with id [%s] does not exist.".formatted(userId));
+        }
+
+        return appendEntry(userId, amount, transactionId);
+    }
+
+    // Subtracts the amount only if the balance covers it, returns false when it doesn't
+    @Transactional
+    public boolean debit(UUID userId, BigDecimal amount, UUID transactionId) {
+        if (amount.signum() < 0) {
+            throw new DomainException("Debit amount [%s] can't be negative.".formatted(amount));
+        }
+
+        if (userRepository.debitBalance(userId, amount) == 0) {
+            return false;
+        }
+
+        appendEntry(userId, amount.negate(), transactionId);
+        return true;
+    }
+
+    // Records the balance a user already has when the ledger starts tracking them (e.g. seeded accounts)
+    @Transactional
+    public void recordOpeningBalance(UUID userId) {
+        BigDecimal balance = getBalance(userId);
+        if (balance.signum() != 0) {
+            appendEntry(userId, balance, null);
+        }
+    }
+
+    public BigDecimal getBalance(UUID userId) {
+        return userRepository.findBalanceById(userId).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(userId)));
+    }
+
+    // Balance has to equal the sum of the ledger and every successful transaction has to have its entry
+    // Users that had a balance before the ledger existed need recordOpeningBalance first
+    public BalanceReconciliation reconcile(UUID userId) {
+        return BalanceReconciliation.builder()
+                .userId(userId)
+                .balance(getBalance(userId))
+                .ledgerTotal(balanceEntryRepository.sumByUserId(userId))
+                .unmatchedTransactions(balanceEntryRepository.countTransactionsWithoutEntry(userId, TransactionStatus.SUCCESSFUL))
+                .build();
+    }
+
+    // The row is still locked by our UPDATE, so the balance read here is the one this change produced
+    private BigDecimal appendEntry(UUID userId, BigDecimal amount, UUID transactionId) {
+        BigDecimal balanceAfter = getBalance(userId);
+
+        balanceEntryRepository.save(BalanceEntry.builder()
+                .userId(userId)
+                .transactionId(transactionId)
+                .amount(amount)
+                .balanceAfter(balanceAfter)
+                .createdOn(LocalDateTime.now())
+                .build());
+
+        return balanceAfter;
+    }
+}
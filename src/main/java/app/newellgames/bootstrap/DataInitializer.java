@@ -1,10 +1,12 @@
 package app.newellgames.bootstrap;
 
 
+import app.newellgames.balance.service.BalanceService;
 import app.newellgames.cart.model.Cart;
 import app.newellgames.game.model.Game;
 import app.newellgames.game.model.Genre;
 import app.newellgames.game.repository.GameRepository;
+import app.newellgames.game.service.GameService;
 import app.newellgames.notification.service.NotificationService;
 import app.newellgames.user.model.User;
 import app.newellgames.user.model.UserRole;
@@ -24,14 +26,18 @@ public class DataInitializer implements CommandLineRunner {
     private final NotificationService notificationService;
     private final UserRepository userRepository;
     private final GameRepository gameRepository;
+    private final GameService gameService;
+    private final BalanceService balanceService;
     private final PasswordEncoder passwordEncoder;
 
     public DataInitializer(NotificationService notificationService, UserRepository userRepository,
-                           GameRepository gameRepository,
-                           PasswordEncoder passwordEncoder) {
+                           GameRepository gameRepository, GameService gameService,
+                           BalanceService balanceService, PasswordEncoder passwordEncoder) {
         this.notificationService = notificationService;
         this.userRepository = userRepository;
         this.gameRepository = gameRepository;
+        this.gameService = gameService;
+        this.balanceService = balanceService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -81,6 +87,8 @@ public class DataInitializer implements CommandLineRunner {
             user.setCart(forUser);
 
             userRepository.saveAll(List.of(admin, user));
+            balanceService.recordOpeningBalance(admin.getId());
+            balanceService.recordOpeningBalance(user.getId());
             notificationService.saveNotificationPreference(admin.getId(), false, admin.getEmail());
             notificationService.saveNotificationPreference(user.getId(), false, user.getEmail());
             System.out.println("✅ Demo users inserted.");
@@ -127,6 +135,7 @@ public class DataInitializer implements CommandLineRunner {
 
 
             gameRepository.saveAll(List.of(g1, g2, g3));
+            gameService.invalidateCatalog();
             System.out.println("✅ Demo games inserted.");
         }
     }
@@ -0,0 +1,65 @@
+package app.newellgames.bootstrap;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.game.service.GameService;
+import app.newellgames.utility.RatingUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// One-off backfill of games.rating_score for games reviewed before the column existed (ddl-auto added it as 0)
+// - only games with positive reviews and a score of 0 are read, every other game already has the right score,
+//   so after one run the query finds nothing and later startups cost a single query
+// - games are fixed in batches, each batch in its own transaction
+@Slf4j
+@Component
+public class RatingScoreBackfill implements CommandLineRunner {
+
+    private final GameRepository gameRepository;
+    private final GameService gameService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${games.rating-backfill.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public RatingScoreBackfill(GameRepository gameRepository, GameService gameService, PlatformTransactionManager transactionManager) {
+        this.gameRepository = gameRepository;
+        this.gameService = gameService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+
+        int backfilled = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> backfillBatch());
+            backfilled += batch;
+        } while (batch == batchSize);
+
+        if (backfilled > 0) {
+            gameService.invalidateCatalog();
+            log.info("Backfilled the rating score of %d games.".formatted(backfilled));
+        }
+    }
+
+    private int backfillBatch() {
+
+        List<Game> games = gameRepository.findWithoutRatingScore(PageRequest.ofSize(batchSize));
+        for (Game game : games) {
+            gameRepository.updateRatingScore(game.getId(), RatingUtility.wilsonLowerBound(game.getPositiveReviews(), game.getNegativeReviews()));
+        }
+
+        return games.size();
+    }
+}
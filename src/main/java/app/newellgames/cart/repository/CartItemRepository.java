@@ -2,10 +2,25 @@ package app.newellgames.cart.repository;
 
 import app.newellgames.cart.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
+
+    @Query("SELECT ci.game.id FROM CartItem ci WHERE ci.cart.user.id = :userId")
+    Set<UUID> findGameIdsByUserId(@Param("userId") UUID userId);
+
+    // One DELETE for the given items of the cart instead of one per item through orphan removal
+    // - returns how many were deleted, fewer than given means some were removed by another request meanwhile
+    // - clears the persistence context, loaded carts and users are detached afterwards
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.id IN :itemIds")
+    int deleteAllByCartIdAndIdIn(@Param("cartId") UUID cartId, @Param("itemIds") Collection<UUID> itemIds);
 }
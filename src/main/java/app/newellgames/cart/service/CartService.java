@@ -14,6 +14,7 @@ import app.newellgames.user.model.User;
 import app.newellgames.user.repository.UserRepository;
 import app.newellgames.user.service.UserService;
 import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -45,6 +46,7 @@ public class CartService {
     }
 
     // Creates cart item, assigns it to the user's cart and saves it into DB
+    @CacheEvict(value = "userSummaries", key = "#user.id")
     public void addGameToCart(Game game, User user) {
 
         CartItem gameToAdd = CartItem.builder()
@@ -58,6 +60,7 @@ public class CartService {
    }
 
    // Removes a cart item from user's cart
+   @CacheEvict(value = "userSummaries", key = "#user.id")
    public void removeGameFromCart(CartItem cartItem, User user) {
         user.getCart().getItems().remove(cartItem);
 
@@ -66,6 +69,7 @@ public class CartService {
 
    // Clears all cart items from user's cart
    @Transactional
+   @CacheEvict(value = "userSummaries", key = "#user.id")
    public void clearAllItemsFromCart (User user) {
         Cart cart = user.getCart();
         cart.getItems().clear();
@@ -90,10 +94,20 @@ public class CartService {
         return gamesAlreadyInCart;
     }
 
+    // Returns the ids of the games in user's cart without loading the cart items
+    public Set<UUID> getGameIdsInCart(UUID userId) {
+        return cartItemRepository.findGameIdsByUserId(userId);
+    }
+
     // Gets cart item by ID
    public CartItem getCartItem(UUID id) {
         return cartItemRepository.findById(id).orElse(null);
    }
+    // Gets user's cart by his ID
+   public Cart getCartByUserId(UUID userId) {
+        return cartRepository.findByUserId(userId).orElse(null);
+   }
+
     // Gets cart by ID
    public Cart getCart(UUID id) {
         return cartRepository.findById(id).orElse(null);
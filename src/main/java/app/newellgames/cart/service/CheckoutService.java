@@ -0,0 +1,85 @@
+package app.newellgames.cart.service;
+
+import app.newellgames.balance.service.BalanceService;
+import app.newellgames.cart.model.Cart;
+import app.newellgames.cart.model.CartItem;
+import app.newellgames.cart.repository.CartItemRepository;
+import app.newellgames.exception.FailedPurchaseException;
+import app.newellgames.game.model.Game;
+import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
+import app.newellgames.transaction.service.TransactionService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.repository.UserRepository;
+import app.newellgames.user.service.OwnershipService;
+import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+// Buys everything in the cart with a fixed number of statements, no matter how many items there are
+// - total is calculated once from the loaded cart items
+// - the transaction is saved and the balance is debited with one guarded UPDATE (+ ledger entry)
+// - games go to the library with one INSERT ... SELECT and the cart is purged with one DELETE,
+//   both only touch the items that were priced, so an item another request adds meanwhile stays in the cart unpaid
+// - when one of the priced items was removed by another request meanwhile, the whole purchase is rolled back
+@Service
+public class CheckoutService {
+
+    private final CartService cartService;
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final TransactionService transactionService;
+    private final BalanceService balanceService;
+    private final OwnershipService ownershipService;
+
+    @Autowired
+    public CheckoutService(CartService cartService, CartItemRepository cartItemRepository, UserRepository userRepository, TransactionService transactionService, BalanceService balanceService, OwnershipService ownershipService) {
+        this.cartService = cartService;
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.transactionService = transactionService;
+        this.balanceService = balanceService;
+        this.ownershipService = ownershipService;
+    }
+
+    // Returns false when the balance doesn't cover the total, then the transaction is saved as FAILED and nothing else changes
+    // Throws FailedPurchaseException for an empty cart or one that changed during the checkout
+    @Transactional
+    public boolean checkout(User user) {
+        Cart cart = user.getCart();
+        if (cart.getItems().isEmpty()) {
+            throw new FailedPurchaseException("Your cart is empty.");
+        }
+
+        List<UUID> itemIds = cart.getItems().stream().map(CartItem::getId).toList();
+        BigDecimal totalPrice = cartService.calculateTotalPrice(cart);
+
+        Transaction transaction = transactionService.initializeTransaction(user, totalPrice, TransactionStatus.SUCCESSFUL, TransactionType.PURCHASE);
+        if (!balanceService.debit(user.getId(), totalPrice, transaction.getId())) {
+            transactionService.markAsFailed(transaction);
+            return false;
+        }
+
+        List<Game> purchasedGames = cart.getItems().stream().map(CartItem::getGame).toList();
+        userRepository.addGamesFromCartItems(user.getId(), cart.getId(), itemIds);
+        if (cartItemRepository.deleteAllByCartIdAndIdIn(cart.getId(), itemIds) != itemIds.size()) {
+            throw new FailedPurchaseException("Your cart changed during the purchase, nothing was bought. Please try again.");
+        }
+        ownershipService.evictAfterCommit(user.getId());
+
+        // The statements above bypassed the loaded entities (they are detached now), so they are kept in step in memory only
+        user.setBalance(user.getBalance().subtract(totalPrice));
+        if (Hibernate.isInitialized(user.getMyGames())) {
+            purchasedGames.stream().filter(game -> !user.getMyGames().contains(game)).forEach(user.getMyGames()::add);
+        }
+        cart.getItems().clear();
+
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package app.newellgames.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Bounded Caffeine caches with their own size and TTL
+// - userSummaries - header data by user id
+// - usersByUsername - security principal by username
+// - userPages - admin users list by page number
+// - ownedGameIds - ids of the games a user owns by user id, used by OwnershipService, async so a miss can be loaded outside of the cache's lock
+// - idempotencyKeys - results of purchase / deposit submissions by (user id, form key), a bean of its own since IdempotencyService works
+//   with the Caffeine cache directly, it's also registered here only for the metrics
+// - notificationPreferences - notification-svc preferences by user id, built and registered by NotificationService since it needs a loader
+// Every spec has recordStats, so actuator publishes hit / miss counts as cache.gets{cache, result}
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public Cache<Object, Object> idempotencyKeys(@Value("${cache.idempotency-keys.spec}") String idempotencyKeysSpec) {
+        return Caffeine.from(idempotencyKeysSpec).build();
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineCacheCustomizer(
+            @Value("${cache.user-summaries.spec}") String userSummariesSpec,
+            @Value("${cache.users-by-username.spec}") String usersByUsernameSpec,
+            @Value("${cache.user-pages.spec}") String userPagesSpec,
+            @Value("${cache.owned-game-ids.spec}") String ownedGameIdsSpec,
+            @Qualifier("idempotencyKeys") Cache<Object, Object> idempotencyKeys) {
+
+        return cacheManager -> {
+            cacheManager.registerCustomCache("userSummaries", Caffeine.from(userSummariesSpec).build());
+            cacheManager.registerCustomCache("usersByUsername", Caffeine.from(usersByUsernameSpec).build());
+            cacheManager.registerCustomCache("userPages", Caffeine.from(userPagesSpec).build());
+            cacheManager.registerCustomCache("ownedGameIds", Caffeine.from(ownedGameIdsSpec).buildAsync());
+            cacheManager.registerCustomCache("idempotencyKeys", idempotencyKeys);
+        };
+    }
+}
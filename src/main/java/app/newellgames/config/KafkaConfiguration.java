@@ -0,0 +1,21 @@
+package app.newellgames.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+// The notification-events topic is created on startup when it doesn't exist yet
+// More partitions let notification-svc consume with more instances, events of one user always stay on one partition
+@Configuration
+@ConditionalOnProperty(name = "notification-events.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaConfiguration {
+
+    @Bean
+    public NewTopic notificationEventsTopic(@Value("${notification-events.topic}") String topic,
+                                            @Value("${notification-events.partitions:6}") int partitions) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+}
@@ -12,7 +12,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table (name = "games")
+@Table (name = "games", indexes = {
+        @Index(name = "idx_games_title_id", columnList = "title, id"),
+        @Index(name = "idx_games_rating_score_id", columnList = "ratingScore, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -48,11 +51,18 @@ public class Game {
     @ManyToMany (mappedBy = "myGames")
     private List<User> users = new ArrayList<>();
 
+    // Review counters and the score are changed only through GameRepository's UPDATE queries, so saving a stale Game can't overwrite them
+    @Column(nullable = false, updatable = false)
     private int positiveReviews;
 
+    @Column(nullable = false, updatable = false)
     private int negativeReviews;
-    //reviews
-    @OneToMany(mappedBy = "game", fetch = FetchType.EAGER)
+
+    // Lower bound of the Wilson score interval of the positive share, used to sort the shop by rating
+    @Column(nullable = false, updatable = false)
+    private double ratingScore;
+    // Reviews are lazy, pages read them through ReviewRepository's feed query
+    @OneToMany(mappedBy = "game", fetch = FetchType.LAZY)
     private List<Review> reviews = new ArrayList<>();
 
 }
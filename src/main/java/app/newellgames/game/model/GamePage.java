@@ -0,0 +1,39 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+// One page of the shop, the next page starts after the last game of this one - (title, id) or (ratingScore, id) depending on the sort
+@Getter
+@AllArgsConstructor
+public class GamePage {
+
+    private final List<GameSummary> games;
+
+    private final boolean hasNext;
+
+    // Pages are fetched with size + 1 rows, the extra row only tells if there is a next page
+    public static GamePage of(List<GameSummary> fetched, int size) {
+
+        if (fetched.size() > size) {
+            return new GamePage(List.copyOf(fetched.subList(0, size)), true);
+        }
+
+        return new GamePage(List.copyOf(fetched), false);
+    }
+
+    public String getNextTitle() {
+        return hasNext ? games.get(games.size() - 1).getTitle() : null;
+    }
+
+    public Double getNextRating() {
+        return hasNext ? games.get(games.size() - 1).getRatingScore() : null;
+    }
+
+    public UUID getNextId() {
+        return hasNext ? games.get(games.size() - 1).getId() : null;
+    }
+}
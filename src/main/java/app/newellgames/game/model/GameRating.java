@@ -0,0 +1,14 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Review counters of a game, read right after they were incremented
+@Getter
+@AllArgsConstructor
+public class GameRating {
+
+    private final int positiveReviews;
+
+    private final int negativeReviews;
+}
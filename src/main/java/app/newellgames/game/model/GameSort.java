@@ -0,0 +1,6 @@
+package app.newellgames.game.model;
+
+// Orders of the shop, both are desc and use the game id as tie breaker
+public enum GameSort {
+    TITLE, RATING
+}
@@ -0,0 +1,53 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Read-only projection of a game, enough for the shop pages and the in-memory catalog
+// Read straight from the games table (no entity is loaded), so it can be shared between requests and kept in the catalog
+@Getter
+@Builder
+@AllArgsConstructor
+@EqualsAndHashCode
+public class GameSummary {
+
+    // Constructor expression used by GameRepository, the order follows the fields below
+    public static final String SELECT = """
+            new app.newellgames.game.model.GameSummary(g.id, g.title, g.publisher, g.genre, g.price, g.imageUrl, g.positiveReviews, g.negativeReviews, g.ratingScore)""";
+
+    private final UUID id;
+
+    private final String title;
+
+    private final String publisher;
+
+    private final Genre genre;
+
+    private final BigDecimal price;
+
+    private final String imageUrl;
+
+    private final int positiveReviews;
+
+    private final int negativeReviews;
+
+    private final double ratingScore;
+
+    public static GameSummary of(Game game) {
+        return new GameSummary(game.getId(), game.getTitle(), game.getPublisher(), game.getGenre(), game.getPrice(), game.getImageUrl(),
+                game.getPositiveReviews(), game.getNegativeReviews(), game.getRatingScore());
+    }
+
+    public GameSummary withRating(int positiveReviews, int negativeReviews, double ratingScore) {
+        return new GameSummary(id, title, publisher, genre, price, imageUrl, positiveReviews, negativeReviews, ratingScore);
+    }
+
+    public int getReviewCount() {
+        return positiveReviews + negativeReviews;
+    }
+}
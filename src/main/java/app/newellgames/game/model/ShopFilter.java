@@ -0,0 +1,31 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Filters and order of the shop, every filter is optional and the order defaults to title
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShopFilter {
+
+    private String query;
+
+    private Genre genre;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+
+    @Builder.Default
+    private GameSort sort = GameSort.TITLE;
+
+    public boolean hasFilters() {
+        return (query != null && !query.isBlank()) || genre != null || minPrice != null || maxPrice != null;
+    }
+}
@@ -0,0 +1,16 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A game of the shop page together with what the current user can do with it
+@Getter
+@AllArgsConstructor
+public class ShopGame {
+
+    private final GameSummary game;
+
+    private final boolean owned;
+
+    private final boolean inCart;
+}
@@ -0,0 +1,17 @@
+package app.newellgames.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of the shop for a user, games already carry their owned / in cart flags
+// The cursor of the next page comes from the underlying GamePage
+@Getter
+@AllArgsConstructor
+public class ShopPage {
+
+    private final List<ShopGame> games;
+
+    private final GamePage page;
+}
@@ -1,15 +1,61 @@
 package app.newellgames.game.repository;
 
 import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GameRating;
+import app.newellgames.game.model.GameSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, UUID> {
-    List<Game> findAllByOrderByTitleDesc();
 
-    List<Game> findGamesByTitleStartingWithIgnoreCase(String title);
+    // Keyset pagination on (title, id) - both queries seek through idx_games_title_id instead of using OFFSET
+    @Query("SELECT " + GameSummary.SELECT + " FROM Game g ORDER BY g.title DESC, g.id DESC")
+    List<GameSummary> findFirstPage(Pageable pageable);
+
+    @Query("SELECT " + GameSummary.SELECT + """
+             FROM Game g
+            WHERE g.title < :title OR (g.title = :title AND g.id < :id)
+            ORDER BY g.title DESC, g.id DESC
+            """)
+    List<GameSummary> findPageAfter(@Param("title") String title, @Param("id") UUID id, Pageable pageable);
+
+    // Same keyset pagination on (ratingScore, id) through idx_games_rating_score_id
+    @Query("SELECT " + GameSummary.SELECT + " FROM Game g ORDER BY g.ratingScore DESC, g.id DESC")
+    List<GameSummary> findFirstPageByRating(Pageable pageable);
+
+    @Query("SELECT " + GameSummary.SELECT + """
+             FROM Game g
+            WHERE g.ratingScore < :rating OR (g.ratingScore = :rating AND g.id < :id)
+            ORDER BY g.ratingScore DESC, g.id DESC
+            """)
+    List<GameSummary> findPageByRatingAfter(@Param("rating") double rating, @Param("id") UUID id, Pageable pageable);
+
+    // Source of the in-memory shop catalog
+    @Query("SELECT " + GameSummary.SELECT + " FROM Game g")
+    List<GameSummary> findAllSummaries();
+
+    // Review counters - one atomic UPDATE, parallel reviews of the same game can't lose an increment
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Game g SET g.positiveReviews = g.positiveReviews + :positive, g.negativeReviews = g.negativeReviews + :negative WHERE g.id = :id")
+    int incrementReviewCounters(@Param("id") UUID id, @Param("positive") int positive, @Param("negative") int negative);
+
+    @Query("SELECT new app.newellgames.game.model.GameRating(g.positiveReviews, g.negativeReviews) FROM Game g WHERE g.id = :id")
+    Optional<GameRating> findRatingById(@Param("id") UUID id);
+
+    // Games reviewed before ratingScore existed, see RatingScoreBackfill
+    @Query("SELECT g FROM Game g WHERE g.positiveReviews > 0 AND g.ratingScore = 0")
+    List<Game> findWithoutRatingScore(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Game g SET g.ratingScore = :ratingScore WHERE g.id = :id")
+    int updateRatingScore(@Param("id") UUID id, @Param("ratingScore") double ratingScore);
 }
@@ -0,0 +1,311 @@
+package app.newellgames.game.service;
+
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.model.Genre;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+// Immutable in-memory snapshot of the games, used by the shop so searching doesn't hit the database
+// - Holds GameSummary projections, never entities, so nothing outside can change it
+// - A new review only replaces that game's rating in a copy of the catalog, the text indexes are shared with the copy
+// - Title and publisher are lower cased and put in a prefix trie (the whole value and every word of it),
+//   a trie node keeps the sorted positions of its games in an int[], most nodes are reached by a handful of games
+// - Queries with 3 or more characters also match inside words through a trigram index
+// - Results are ordered by (title, id) or (ratingScore, id) desc, filtered by genre and price range and paged with a cursor of the same columns
+public final class GameCatalog {
+
+    private static final int GRAM = 3;
+
+    private static final Comparator<GameSummary> ORDER = Comparator.comparing(GameSummary::getTitle).thenComparing(GameSummary::getId).reversed();
+
+    private static final Comparator<GameSummary> RATING_ORDER = Comparator.comparingDouble(GameSummary::getRatingScore).thenComparing(GameSummary::getId).reversed();
+
+    private final List<GameSummary> games;
+    private final Map<UUID, Integer> positionsById;
+    // Positions of the games ordered by rating, the indexes below always work with the title order positions
+    private final int[] ratingOrder;
+    private final String[] searchableText;
+    private final TrieNode prefixIndex;
+    private final Map<String, BitSet> trigramIndex;
+
+    private GameCatalog(List<GameSummary> games) {
+        this.games = games.stream().sorted(ORDER).toList();
+        this.positionsById = new HashMap<>();
+        this.searchableText = new String[this.games.size()];
+        this.prefixIndex = new TrieNode();
+        this.trigramIndex = new HashMap<>();
+
+        for (int position = 0; position < this.games.size(); position++) {
+            GameSummary game = this.games.get(position);
+            positionsById.put(game.getId(), position);
+            searchableText[position] = normalize(game.getTitle()) + "\n" + normalize(game.getPublisher());
+
+            for (String value : List.of(normalize(game.getTitle()), normalize(game.getPublisher()))) {
+                index(value, position);
+            }
+        }
+
+        prefixIndex.trim();
+        this.ratingOrder = rank(this.games);
+    }
+
+    // Copy with other ratings, title order and text indexes don't depend on the rating and are shared
+    private GameCatalog(GameCatalog source, List<GameSummary> games) {
+        this.games = games;
+        this.positionsById = source.positionsById;
+        this.searchableText = source.searchableText;
+        this.prefixIndex = source.prefixIndex;
+        this.trigramIndex = source.trigramIndex;
+        this.ratingOrder = rank(games);
+    }
+
+    public static GameCatalog of(List<GameSummary> games) {
+        return new GameCatalog(games);
+    }
+
+    // Catalog with the new rating of one game, the catalog is returned as it is when the game is not in it
+    // or already has a rating from the same or a later review (callbacks of parallel reviews can come in any order)
+    public GameCatalog withRating(UUID gameId, int positiveReviews, int negativeReviews, double ratingScore) {
+
+        Integer position = positionsById.get(gameId);
+        if (position == null || games.get(position).getReviewCount() >= positiveReviews + negativeReviews) {
+            return this;
+        }
+
+        List<GameSummary> updated = new ArrayList<>(games);
+        updated.set(position, games.get(position).withRating(positiveReviews, negativeReviews, ratingScore));
+
+        return new GameCatalog(this, List.copyOf(updated));
+    }
+
+    private static int[] rank(List<GameSummary> games) {
+
+        Integer[] byRating = new Integer[games.size()];
+        for (int position = 0; position < games.size(); position++) {
+            byRating[position] = position;
+        }
+        Arrays.sort(byRating, (left, right) -> RATING_ORDER.compare(games.get(left), games.get(right)));
+
+        int[] ratingOrder = new int[byRating.length];
+        for (int rank = 0; rank < byRating.length; rank++) {
+            ratingOrder[rank] = byRating[rank];
+        }
+
+        return ratingOrder;
+    }
+
+    // Any of the filters can be null, a blank query matches every game
+    // - without a cursor the first page is returned, otherwise the page that starts after (afterTitle, afterId)
+    public GamePage search(String query, Genre genre, BigDecimal minPrice, BigDecimal maxPrice, String afterTitle, UUID afterId, int size) {
+
+        BitSet matches = match(normalize(query));
+
+        List<GameSummary> fetched = new ArrayList<>(size + 1);
+        int start = afterTitle == null || afterId == null ? 0 : positionAfter(afterTitle, afterId);
+        for (int position = matches.nextSetBit(start); position >= 0 && fetched.size() <= size; position = matches.nextSetBit(position + 1)) {
+            GameSummary game = games.get(position);
+            if (passesFilters(game, genre, minPrice, maxPrice)) {
+                fetched.add(game);
+            }
+        }
+
+        return GamePage.of(fetched, size);
+    }
+
+    // Same search ordered by rating, the page starts after (afterRating, afterId)
+    public GamePage searchByRating(String query, Genre genre, BigDecimal minPrice, BigDecimal maxPrice, Double afterRating, UUID afterId, int size) {
+
+        BitSet matches = match(normalize(query));
+
+        List<GameSummary> fetched = new ArrayList<>(size + 1);
+        int start = afterRating == null || afterId == null ? 0 : rankAfter(afterRating, afterId);
+        for (int rank = start; rank < ratingOrder.length && fetched.size() <= size; rank++) {
+            int position = ratingOrder[rank];
+            GameSummary game = games.get(position);
+            if (matches.get(position) && passesFilters(game, genre, minPrice, maxPrice)) {
+                fetched.add(game);
+            }
+        }
+
+        return GamePage.of(fetched, size);
+    }
+
+    private static boolean passesFilters(GameSummary game, Genre genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (genre != null && game.getGenre() != genre) {
+            return false;
+        }
+        if (minPrice != null && game.getPrice().compareTo(minPrice) < 0) {
+            return false;
+        }
+
+        return maxPrice == null || game.getPrice().compareTo(maxPrice) <= 0;
+    }
+
+    private BitSet match(String normalizedQuery) {
+
+        if (normalizedQuery.isEmpty()) {
+            BitSet all = new BitSet(games.size());
+            all.set(0, games.size());
+            return all;
+        }
+
+        BitSet matches = findByPrefix(normalizedQuery);
+        if (normalizedQuery.length() >= GRAM) {
+            matches.or(findBySubstring(normalizedQuery));
+        }
+
+        return matches;
+    }
+
+    // Binary search for the first game that comes after the cursor, it works even if the cursor game was removed meanwhile
+    private int positionAfter(String afterTitle, UUID afterId) {
+
+        int low = 0;
+        int high = games.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            GameSummary game = games.get(middle);
+            int byTitle = game.getTitle().compareTo(afterTitle);
+            // Order is desc, so everything with a key >= the cursor is on this page or before it
+            if (byTitle > 0 || (byTitle == 0 && game.getId().compareTo(afterId) >= 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    // Same binary search over the rating order
+    private int rankAfter(double afterRating, UUID afterId) {
+
+        int low = 0;
+        int high = ratingOrder.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            GameSummary game = games.get(ratingOrder[middle]);
+            int byRating = Double.compare(game.getRatingScore(), afterRating);
+            if (byRating > 0 || (byRating == 0 && game.getId().compareTo(afterId) >= 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void index(String value, int position) {
+
+        // "elden ring" is reachable with "eld", "elden r" and "ring"
+        prefixIndex.insert(value, position);
+        for (int i = 1; i < value.length(); i++) {
+            if (value.charAt(i - 1) == ' ') {
+                prefixIndex.insert(value.substring(i), position);
+            }
+        }
+
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            trigramIndex.computeIfAbsent(value.substring(i, i + GRAM), gram -> new BitSet()).set(position);
+        }
+    }
+
+    private BitSet findByPrefix(String query) {
+
+        TrieNode node = prefixIndex.find(query);
+
+        BitSet matches = new BitSet(games.size());
+        if (node != null) {
+            for (int i = 0; i < node.size; i++) {
+                matches.set(node.positions[i]);
+            }
+        }
+
+        return matches;
+    }
+
+    // Intersects the games of every trigram of the query, then drops the ones that only share the trigrams
+    private BitSet findBySubstring(String query) {
+
+        BitSet candidates = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            BitSet positions = trigramIndex.get(query.substring(i, i + GRAM));
+            if (positions == null) {
+                return new BitSet();
+            }
+            if (candidates == null) {
+                candidates = (BitSet) positions.clone();
+            } else {
+                candidates.and(positions);
+            }
+        }
+
+        for (int position = candidates.nextSetBit(0); position >= 0; position = candidates.nextSetBit(position + 1)) {
+            if (!searchableText[position].contains(query)) {
+                candidates.clear(position);
+            }
+        }
+
+        return candidates;
+    }
+
+    private static String normalize(String value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Every node keeps the positions of all games below it, so a prefix lookup is one walk down the trie
+    // Games are indexed in position order, so appending keeps the positions sorted and a repeat is always the last one
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private int[] positions = new int[1];
+        private int size;
+
+        private void insert(String value, int position) {
+
+            TrieNode node = this;
+            for (int i = 0; i < value.length(); i++) {
+                node = node.children.computeIfAbsent(value.charAt(i), character -> new TrieNode());
+                node.add(position);
+            }
+        }
+
+        private void add(int position) {
+
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        // Drops the spare capacity left by add once the catalog is built
+        private void trim() {
+
+            if (positions.length > size) {
+                positions = Arrays.copyOf(positions, size);
+            }
+            children.values().forEach(TrieNode::trim);
+        }
+
+        private TrieNode find(String prefix) {
+
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+
+            return node;
+        }
+    }
+}
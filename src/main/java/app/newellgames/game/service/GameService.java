@@ -2,51 +2,181 @@ package app.newellgames.game.service;
 
 import app.newellgames.exception.DomainException;
 import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameRating;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.model.Genre;
 import app.newellgames.game.repository.GameRepository;
 import app.newellgames.review.model.Review;
 import app.newellgames.review.model.ReviewType;
+import app.newellgames.utility.RatingUtility;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GameService {
 
     private final GameRepository gameRepository;
 
+    @Value("${shop.page-size:24}")
+    private int pageSize;
+
+    // Every instance holds its own catalog and only applies the ratings of reviews it handled itself,
+    // so with more than one instance a catalog misses the others' reviews (and games added straight to the DB) until it's rebuilt
+    // max-age bounds that, the catalog is rebuilt from the database once it's older
+    @Value("${shop.catalog.max-age:5m}")
+    private Duration catalogMaxAge;
+
+    private volatile GameCatalog catalog;
+    private volatile boolean catalogStale = true;
+    private volatile long catalogBuiltAt;
+    // Guards the catalog rebuild and the in-place rating updates
+    private final ReentrantLock catalogLock = new ReentrantLock();
+
     @Autowired
     public GameService(GameRepository gameRepository) {
         this.gameRepository = gameRepository;
     }
 
-    public List<Game> getAllGames() {
-        return gameRepository.findAllByOrderByTitleDesc();
+    // Shop page ordered by (title, id) desc, the next page is read with the (title, id) of the last game as cursor
+    public GamePage getGamesPage(String afterTitle, UUID afterId) {
+
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<GameSummary> fetched = afterTitle == null || afterId == null
+                ? gameRepository.findFirstPage(limit)
+                : gameRepository.findPageAfter(afterTitle, afterId, limit);
+
+        return GamePage.of(fetched, pageSize);
     }
 
+    // Shop page ordered by (ratingScore, id) desc, no review is loaded - the score is kept on the game
+    public GamePage getGamesPageByRating(Double afterRating, UUID afterId) {
+
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<GameSummary> fetched = afterRating == null || afterId == null
+                ? gameRepository.findFirstPageByRating(limit)
+                : gameRepository.findPageByRatingAfter(afterRating, afterId, limit);
+
+        return GamePage.of(fetched, pageSize);
+    }
 
     // Gets game by ID
     public Game getById(UUID id) {
         return gameRepository.findById(id).orElseThrow(() -> new DomainException("Game with id [%s] does not exist.".formatted(id)));
     }
 
-    // Assigns a review to the game
+    // Counts the review of the game
+    // - the counter is incremented with one atomic UPDATE, the game and its reviews are not saved
+    // - the row stays locked by that UPDATE until commit, so the rating score is calculated from the counts this review produced
     @Transactional
     public void addGameReview (Review review, Game game) {
-        if(review.getType() == ReviewType.POSITIVE)
-        {
-            game.setPositiveReviews(game.getPositiveReviews() + 1);
-        } else {
-            game.setNegativeReviews(game.getNegativeReviews() + 1);
+        boolean positive = review.getType() == ReviewType.POSITIVE;
+        if (gameRepository.incrementReviewCounters(game.getId(), positive ? 1 : 0, positive ? 0 : 1) == 0) {
+            throw new DomainException("Game with id [%s] does not exist.".formatted(game.getId()));
+        }
+
+        GameRating rating = gameRepository.findRatingById(game.getId()).orElseThrow(() -> new DomainException("Game with id [%s] does not exist.".formatted(game.getId())));
+        double ratingScore = RatingUtility.wilsonLowerBound(rating.getPositiveReviews(), rating.getNegativeReviews());
+        gameRepository.updateRatingScore(game.getId(), ratingScore);
+
+        // Keeps the loaded game in step for the rest of the request, the columns themselves are not updatable
+        game.setPositiveReviews(rating.getPositiveReviews());
+        game.setNegativeReviews(rating.getNegativeReviews());
+        game.setRatingScore(ratingScore);
+        updateCatalogAfterCommit(game.getId(), rating, ratingScore);
+    }
+
+    // Shop search - matches title / publisher prefixes and substrings, every filter is optional
+    public GamePage searchGames(String query, Genre genre, BigDecimal minPrice, BigDecimal maxPrice, String afterTitle, UUID afterId) {
+        return getCatalog().search(query, genre, minPrice, maxPrice, afterTitle, afterId, pageSize);
+    }
+
+    // Same search ordered by rating
+    public GamePage searchGamesByRating(String query, Genre genre, BigDecimal minPrice, BigDecimal maxPrice, Double afterRating, UUID afterId) {
+        return getCatalog().searchByRating(query, genre, minPrice, maxPrice, afterRating, afterId, pageSize);
+    }
+
+    // Marks the catalog as stale, it's rebuilt from the database on the next read
+    public void invalidateCatalog() {
+        catalogStale = true;
+    }
+
+    // Replaces the rating of one game in the catalog, nothing is read from the database
+    // A stale catalog is left alone, its rebuild reads the committed rating anyway
+    public void updateCatalogRating(UUID gameId, GameRating rating, double ratingScore) {
+        catalogLock.lock();
+        try {
+            if (catalog != null && !catalogStale) {
+                catalog = catalog.withRating(gameId, rating.getPositiveReviews(), rating.getNegativeReviews(), ratingScore);
+            }
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+
+    // Inside a transaction the catalog is updated after commit, so the shop never shows a rating that was rolled back
+    private void updateCatalogAfterCommit(UUID gameId, GameRating rating, double ratingScore) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            updateCatalogRating(gameId, rating, ratingScore);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                updateCatalogRating(gameId, rating, ratingScore);
+            }
+        });
+    }
+
+    private GameCatalog getCatalog() {
+        if (catalogStale) {
+            catalogLock.lock();
+            try {
+                if (catalogStale) {
+                    rebuildCatalog();
+                }
+            } finally {
+                catalogLock.unlock();
+            }
+        } else if (isCatalogExpired() && catalogLock.tryLock()) {
+            // The expired catalog is still served to the other requests while this one rebuilds it
+            try {
+                if (!catalogStale && isCatalogExpired()) {
+                    rebuildCatalog();
+                }
+            } finally {
+                catalogLock.unlock();
+            }
+        }
+
+        return catalog;
+    }
+
+    private void rebuildCatalog() {
+        // Flag is cleared before reading, so a write during the rebuild marks it stale again
+        catalogStale = false;
+        catalogBuiltAt = System.nanoTime();
+        try {
+            catalog = GameCatalog.of(gameRepository.findAllSummaries());
+        } catch (RuntimeException e) {
+            catalogStale = true;
+            throw e;
         }
-        game.getReviews().add(review);
-        gameRepository.save(game);
     }
 
-    // Gets the game by Title for Shop search functionality
-    public List<Game> findGamesByTitle(String title) {
-        return gameRepository.findGamesByTitleStartingWithIgnoreCase(title);
+    private boolean isCatalogExpired() {
+        return System.nanoTime() - catalogBuiltAt > catalogMaxAge.toNanos();
     }
 }
@@ -0,0 +1,56 @@
+package app.newellgames.game.service;
+
+import app.newellgames.cart.service.CartService;
+import app.newellgames.game.model.*;
+import app.newellgames.user.service.OwnershipService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Builds the shop page of a user in one call
+// - games come from the catalog (with filters) or one keyset query (without), ordered by title or rating
+// - owned flags come from the cached ownership set, in cart flags from one query over the cart item ids
+// - neither the library nor the cart items are loaded as entities
+@Service
+public class ShopService {
+
+    private final GameService gameService;
+    private final OwnershipService ownershipService;
+    private final CartService cartService;
+
+    @Autowired
+    public ShopService(GameService gameService, OwnershipService ownershipService, CartService cartService) {
+        this.gameService = gameService;
+        this.ownershipService = ownershipService;
+        this.cartService = cartService;
+    }
+
+    // Without a cursor the first page is returned, otherwise the page after (afterTitle, afterId) or (afterRating, afterId) depending on the sort
+    public ShopPage getShopPage(UUID userId, ShopFilter filter, String afterTitle, Double afterRating, UUID afterId) {
+        GamePage gamePage = getGamePage(filter, afterTitle, afterRating, afterId);
+
+        Set<UUID> ownedGameIds = ownershipService.getOwnedGameIds(userId);
+        Set<UUID> gameIdsInCart = cartService.getGameIdsInCart(userId);
+
+        List<ShopGame> games = gamePage.getGames().stream()
+                .map(game -> new ShopGame(game, ownedGameIds.contains(game.getId()), gameIdsInCart.contains(game.getId())))
+                .toList();
+
+        return new ShopPage(games, gamePage);
+    }
+
+    private GamePage getGamePage(ShopFilter filter, String afterTitle, Double afterRating, UUID afterId) {
+        if (filter.getSort() == GameSort.RATING) {
+            return filter.hasFilters()
+                    ? gameService.searchGamesByRating(filter.getQuery(), filter.getGenre(), filter.getMinPrice(), filter.getMaxPrice(), afterRating, afterId)
+                    : gameService.getGamesPageByRating(afterRating, afterId);
+        }
+
+        return filter.hasFilters()
+                ? gameService.searchGames(filter.getQuery(), filter.getGenre(), filter.getMinPrice(), filter.getMaxPrice(), afterTitle, afterId)
+                : gameService.getGamesPage(afterTitle, afterId);
+    }
+}
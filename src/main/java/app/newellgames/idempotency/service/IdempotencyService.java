@@ -0,0 +1,77 @@
+package app.newellgames.idempotency.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Makes form submissions (purchase, deposit) safe to repeat
+// - every form carries a key, the first submission with it runs the action and its result is kept under (user id, key)
+// - a repeated submission with the same key gets that result back without running the action again,
+//   one that arrives while the first is still running waits for it
+// - keys are kept in the bounded "idempotencyKeys" cache (size and TTL in cache.idempotency-keys.spec)
+// - the cache is local to this instance, a repeat that a load balancer sends to another node is not recognized
+// - when the action throws, the key is dropped so the user can try again
+@Service
+public class IdempotencyService {
+
+    private final Cache<Object, Object> keys;
+
+    @Autowired
+    public IdempotencyService(@Qualifier("idempotencyKeys") Cache<Object, Object> keys) {
+        this.keys = keys;
+    }
+
+    // Without a key the action just runs, so clients that don't send one behave as before
+    @SuppressWarnings("unchecked")
+    public <T> T execute(UUID userId, String idempotencyKey, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String key = "%s:%s".formatted(userId, idempotencyKey.trim());
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        Object existing = keys.asMap().putIfAbsent(key, first);
+        if (existing != null) {
+            return (T) awaitResult((CompletableFuture<Object>) existing);
+        }
+
+        try {
+            T result = action.get();
+            first.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            keys.asMap().remove(key, first);
+            first.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void execute(UUID userId, String idempotencyKey, Runnable action) {
+        execute(userId, idempotencyKey, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // New key for a form that is about to be rendered
+    public String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    private Object awaitResult(CompletableFuture<Object> first) {
+        try {
+            return first.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package app.newellgames.notification.client;
 import app.newellgames.notification.client.dto.Notification;
 import app.newellgames.notification.client.dto.NotificationPreference;
 import app.newellgames.notification.client.dto.NotificationRequest;
+import app.newellgames.notification.client.dto.NotificationSummary;
 import app.newellgames.notification.client.dto.UpsertNotificationPreference;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
@@ -11,7 +12,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "notification-svc", url = "http://notification-service:8081/api/v1/notifications")
+// Pooled Apache HttpClient 5 transport, timeouts in spring.cloud.openfeign.*, resilience is added by NotificationService
+@FeignClient(name = "notification-svc", url = "${notification-svc.base-url}")
 public interface NotificationClient {
     @PostMapping("/preferences")
     ResponseEntity<Void> upsertNotificationPreference(@RequestBody UpsertNotificationPreference notificationPreference);
@@ -22,8 +24,15 @@ public interface NotificationClient {
     @GetMapping
     ResponseEntity<List<Notification>> getNotificationHistory(@RequestParam(name = "userId")UUID userId);
 
-    @PostMapping
-    ResponseEntity<Void> sendNotification(@RequestBody NotificationRequest notificationRequest);
+    @GetMapping("/summary")
+    ResponseEntity<NotificationSummary> getNotificationSummary(@RequestParam(name = "userId") UUID userId);
+
+    @GetMapping("/recent")
+    ResponseEntity<List<Notification>> getRecentNotifications(@RequestParam(name = "userId") UUID userId, @RequestParam(name = "page") int page, @RequestParam(name = "size") int size);
+
+    // Many users in one request (promotions, announcements), domain events go over Kafka instead
+    @PostMapping("/batch")
+    ResponseEntity<Void> sendNotifications(@RequestBody List<NotificationRequest> notificationRequests);
 
     @PutMapping("/preferences")
     ResponseEntity<Void> updateNotificationPreference(@RequestParam("userId") UUID userId, @RequestParam("enabled") boolean enabled);
@@ -1,8 +1,12 @@
 package app.newellgames.notification.client.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class NotificationPreference {
 
     private String type;
@@ -0,0 +1,13 @@
+package app.newellgames.notification.client.dto;
+
+import lombok.Data;
+
+@Data
+public class NotificationSummary {
+
+    private long succeeded;
+
+    private long failed;
+
+    private long pending;
+}
@@ -0,0 +1,80 @@
+package app.newellgames.notification.event;
+
+import app.newellgames.cart.model.CartItem;
+import app.newellgames.game.model.Game;
+import app.newellgames.user.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Domain event sent to notification-svc over Kafka, notification-svc turns it into an email
+// - the message key is the userId, so all events of a user land on one partition and keep their order
+// - attributes hold the event's data as plain strings, so both services can read it without sharing classes
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEvent {
+
+    private UUID eventId;
+
+    private NotificationEventType type;
+
+    private UUID userId;
+
+    private LocalDateTime occurredOn;
+
+    private Map<String, String> attributes;
+
+    public static NotificationEvent depositCompleted(UUID userId, String username, BigDecimal amount, boolean successful) {
+        return of(NotificationEventType.DEPOSIT_COMPLETED, userId, Map.of(
+                "username", text(username),
+                "amount", amount.toPlainString(),
+                "successful", String.valueOf(successful)));
+    }
+
+    public static NotificationEvent purchaseCompleted(UUID userId, String username, List<String> gameTitles) {
+        return of(NotificationEventType.PURCHASE_COMPLETED, userId, Map.of(
+                "username", text(username),
+                "gameTitles", String.join("\n", gameTitles)));
+    }
+
+    // The purchase email lists the titles of the bought cart items, PurchaseNotificationBenchmark measures this method
+    public static NotificationEvent purchaseCompleted(User user, List<CartItem> cartItems) {
+        return purchaseCompleted(user.getId(), user.getUsername(), cartItems.stream().map(CartItem::getGame).map(Game::getTitle).toList());
+    }
+
+    public static NotificationEvent reviewPosted(UUID userId, String gameTitle, String title, String description) {
+        return of(NotificationEventType.REVIEW_POSTED, userId, Map.of(
+                "gameTitle", text(gameTitle),
+                "title", text(title),
+                "description", text(description)));
+    }
+
+    public static NotificationEvent profileUpdated(UUID userId, String username, String email) {
+        return of(NotificationEventType.PROFILE_UPDATED, userId, Map.of(
+                "username", text(username),
+                "email", text(email)));
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static NotificationEvent of(NotificationEventType type, UUID userId, Map<String, String> attributes) {
+        return NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .type(type)
+                .userId(userId)
+                .occurredOn(LocalDateTime.now())
+                .attributes(attributes)
+                .build();
+    }
+}
@@ -0,0 +1,5 @@
+package app.newellgames.notification.event;
+
+public enum NotificationEventType {
+    DEPOSIT_COMPLETED, PURCHASE_COMPLETED, REVIEW_POSTED, PROFILE_UPDATED
+}
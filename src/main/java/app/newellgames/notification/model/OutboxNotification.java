@@ -0,0 +1,53 @@
+package app.newellgames.notification.model;
+
+import app.newellgames.notification.event.NotificationEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// NotificationEvent waiting to be published to Kafka, written in the same DB transaction as the change that caused it
+// - (status, nextAttemptOn) serves NotificationOutboxRelay looking for due events
+// - (userId, createdOn) serves the check for an earlier event of the same user, which holds the later ones back
+@Entity
+@Table(name = "notification_event_outbox", indexes = {
+        @Index(name = "idx_event_outbox_status_next_attempt", columnList = "status, nextAttemptOn"),
+        @Index(name = "idx_event_outbox_user_created", columnList = "userId, createdOn")
+})
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class OutboxNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // The message key, all events of a user go to one partition
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationEventType eventType;
+
+    // The whole event as JSON, purchase events list every bought title, so it has no upper bound
+    // LONGTEXT on MySQL, a plain @Lob String is only a 255 byte TINYTEXT there
+    @Column(nullable = false, length = Length.LONG32)
+    private String payload;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptOn;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
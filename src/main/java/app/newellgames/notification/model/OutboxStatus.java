@@ -0,0 +1,5 @@
+package app.newellgames.notification.model;
+
+public enum OutboxStatus {
+    PENDING, FAILED
+}
@@ -0,0 +1,32 @@
+package app.newellgames.notification.repository;
+
+import app.newellgames.notification.model.OutboxNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, UUID> {
+
+    // Claims due pending events, rows already locked by another instance are skipped instead of waited for
+    // - only the oldest event of a user still in the outbox can be claimed, whatever its status, so a user's events are published
+    //   one after another in the order they were written, by one instance at a time, and a FAILED one holds back the later ones
+    // - the NOT EXISTS subquery is a plain read, it sees the rows another instance has locked and skips their later ones too
+    // Has to run in a transaction, the locks are held until the caller commits the claim
+    @Query(value = """
+            SELECT * FROM notification_event_outbox o
+            WHERE o.status = 'PENDING' AND o.next_attempt_on <= :now
+              AND NOT EXISTS (SELECT 1 FROM notification_event_outbox earlier
+                              WHERE earlier.user_id = o.user_id
+                                AND (earlier.created_on < o.created_on OR (earlier.created_on = o.created_on AND earlier.id < o.id)))
+            ORDER BY o.created_on, o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxNotification> lockDuePendingNotifications(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
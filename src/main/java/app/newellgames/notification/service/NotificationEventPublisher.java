@@ -0,0 +1,56 @@
+package app.newellgames.notification.service;
+
+import app.newellgames.notification.event.NotificationEvent;
+import app.newellgames.notification.model.OutboxNotification;
+import app.newellgames.notification.model.OutboxStatus;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// Publishes NotificationEvents through the outbox, NotificationOutboxRelay sends them to the notification-events topic
+// - the event is written to the outbox table in the caller's DB transaction, so a rolled back deposit or purchase sends nothing
+//   and a committed one can't lose its event when Kafka is down
+// - the request never waits for the broker
+@Service
+public class NotificationEventPublisher {
+
+    private final OutboxNotificationRepository outboxNotificationRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public NotificationEventPublisher(OutboxNotificationRepository outboxNotificationRepository, ObjectMapper objectMapper) {
+        this.outboxNotificationRepository = outboxNotificationRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Joins the caller's transaction, a caller without one (editProfile) writes the event right after its own change
+    @Transactional
+    public void publish(NotificationEvent event) {
+
+        OutboxNotification outboxNotification = OutboxNotification.builder()
+                .userId(event.getUserId())
+                .eventType(event.getType())
+                .payload(toJson(event))
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdOn(event.getOccurredOn())
+                .nextAttemptOn(event.getOccurredOn())
+                .build();
+
+        outboxNotificationRepository.save(outboxNotification);
+    }
+
+    private String toJson(NotificationEvent event) {
+
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize %s event for user with id = [%s].".formatted(event.getType(), event.getUserId()), e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package app.newellgames.notification.service;
+
+import app.newellgames.notification.event.NotificationEvent;
+import app.newellgames.notification.model.OutboxNotification;
+import app.newellgames.notification.model.OutboxStatus;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Drains the outbox to the notification-events topic in batches, every event is keyed by its userId
+// - Due rows are claimed with SELECT ... FOR UPDATE SKIP LOCKED and leased by moving their next attempt to now + claimTimeout,
+//   so several instances can relay at once and a batch left behind by a dead instance is picked up again after the lease
+// - Per user ordering: only the oldest event of a user in the outbox is claimed, the next one after it was published and deleted,
+//   so the relay keeps claiming until nothing is due. Events of one user in the same batch are still sent one after another
+//   and the ones after a failed event are held back unsent, without counting an attempt
+// - The batch is sent at once and the relay waits up to sendTimeout for the acks, request threads never wait for the broker
+// - Published rows are deleted, failed ones are retried with exponential backoff and after max attempts they stay as FAILED,
+//   a FAILED event keeps holding back the user's later events instead of leaving a gap in their stream
+// - Delivery is at least once, an event acked just before a crash is sent again after the lease
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification-events.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationOutboxRelay {
+
+    private final OutboxNotificationRepository outboxNotificationRepository;
+    private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification-events.topic}")
+    private String topic;
+
+    @Value("${notification-events.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification-events.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification-events.outbox.initial-backoff:5s}")
+    private Duration initialBackoff;
+
+    @Value("${notification-events.outbox.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    @Value("${notification-events.outbox.claim-timeout:1m}")
+    private Duration claimTimeout;
+
+    @Value("${notification-events.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Autowired
+    public NotificationOutboxRelay(OutboxNotificationRepository outboxNotificationRepository, KafkaTemplate<String, NotificationEvent> kafkaTemplate,
+                                   ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.outboxNotificationRepository = outboxNotificationRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notification-events.outbox.relay-delay:2s}")
+    public void relay() {
+
+        while (true) {
+            List<OutboxNotification> batch = transactionTemplate.execute(status -> claim());
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // The whole batch is sent before waiting, the producer batches the records per partition
+            // An event is sent only after the user's previous event in the batch was acked
+            Map<UUID, CompletableFuture<SendResult<String, NotificationEvent>>> lastSendByUser = new HashMap<>();
+            List<CompletableFuture<SendResult<String, NotificationEvent>>> sends = new ArrayList<>();
+            for (OutboxNotification outboxNotification : batch) {
+                CompletableFuture<SendResult<String, NotificationEvent>> previous = lastSendByUser.get(outboxNotification.getUserId());
+                CompletableFuture<SendResult<String, NotificationEvent>> send = previous == null ? send(outboxNotification) : previous.thenCompose(result -> send(outboxNotification));
+                lastSendByUser.put(outboxNotification.getUserId(), send);
+                sends.add(send);
+            }
+
+            List<OutboxNotification> published = new ArrayList<>();
+            List<OutboxNotification> notPublished = new ArrayList<>();
+            Set<UUID> blockedUsers = new HashSet<>();
+            long deadline = System.nanoTime() + sendTimeout.toNanos();
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxNotification outboxNotification = batch.get(i);
+
+                if (blockedUsers.contains(outboxNotification.getUserId())) {
+                    holdBack(outboxNotification);
+                    notPublished.add(outboxNotification);
+                } else if (isAcked(outboxNotification, sends.get(i), deadline)) {
+                    published.add(outboxNotification);
+                } else {
+                    scheduleRetry(outboxNotification);
+                    notPublished.add(outboxNotification);
+                    blockedUsers.add(outboxNotification.getUserId());
+                }
+            }
+
+            if (!published.isEmpty()) {
+                outboxNotificationRepository.deleteAllInBatch(published);
+            }
+
+            if (!notPublished.isEmpty()) {
+                outboxNotificationRepository.saveAll(notPublished);
+
+                // Stop when Kafka is failing, the rest of the outbox waits for the next run
+                return;
+            }
+        }
+    }
+
+    private List<OutboxNotification> claim() {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxNotification> batch = outboxNotificationRepository.lockDuePendingNotifications(now, batchSize);
+
+        batch.forEach(outboxNotification -> outboxNotification.setNextAttemptOn(now.plus(claimTimeout)));
+
+        return batch;
+    }
+
+    private boolean isAcked(OutboxNotification outboxNotification, CompletableFuture<SendResult<String, NotificationEvent>> send, long deadline) {
+
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Can't publish outbox event [%s] for user with id = [%s]: %s".formatted(outboxNotification.getId(), outboxNotification.getUserId(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private CompletableFuture<SendResult<String, NotificationEvent>> send(OutboxNotification outboxNotification) {
+
+        try {
+            NotificationEvent event = objectMapper.readValue(outboxNotification.getPayload(), NotificationEvent.class);
+            return kafkaTemplate.send(topic, outboxNotification.getUserId().toString(), event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Ends the lease of an event that waits for an earlier event of its user, the claim query only returns it once that one is gone
+    private void holdBack(OutboxNotification outboxNotification) {
+        outboxNotification.setNextAttemptOn(LocalDateTime.now());
+    }
+
+    // Next attempt is after initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    void scheduleRetry(OutboxNotification outboxNotification) {
+
+        int attempts = outboxNotification.getAttempts() + 1;
+        outboxNotification.setAttempts(attempts);
+
+        if (attempts >= maxAttempts) {
+            outboxNotification.setStatus(OutboxStatus.FAILED);
+            log.error("Outbox event [%s] for user with id = [%s] was not published after %d attempts, the user's later events wait until it is set back to PENDING or removed."
+                    .formatted(outboxNotification.getId(), outboxNotification.getUserId(), attempts));
+            return;
+        }
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+
+        outboxNotification.setNextAttemptOn(LocalDateTime.now().plus(backoff));
+    }
+}
@@ -6,28 +6,68 @@ import app.newellgames.notification.client.NotificationClient;
 import app.newellgames.notification.client.dto.Notification;
 import app.newellgames.notification.client.dto.NotificationPreference;
 import app.newellgames.notification.client.dto.NotificationRequest;
+import app.newellgames.notification.client.dto.NotificationSummary;
 import app.newellgames.notification.client.dto.UpsertNotificationPreference;
 import app.newellgames.user.model.User;
 import app.newellgames.user.service.UserService;
+import app.newellgames.utility.CacheUtility;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+// Every call to notification-svc goes through a semaphore bulkhead and a circuit breaker (resilience4j.*.instances.notification-svc)
+// - the bulkhead caps how many request threads can wait on notification-svc at once, the rest fail right away
+// - an open circuit fails the calls right away instead of letting each of them wait for the read timeout
+// - reads fall back to an empty result, writes fail fast with NotificationServiceFeignCallException
 @Service
 @Slf4j
 public class NotificationService {
 
+    private static final String NOTIFICATION_SVC = "notification-svc";
+
     private final NotificationClient notificationClient;
+    // Read-through cache of the preferences by user id (size and timings in cache.notification-preferences.spec)
+    // - refreshAfterWrite - an older entry is still returned right away and reloaded in the background (refresh-ahead)
+    // - when the reload fails the old entry is kept, so the pages keep working while notification-svc is down
+    // - expireAfterWrite - how long such a stale entry can be served before it has to be loaded again
+    // - a miss is loaded on the caller's thread outside of the cache's lock (see CacheUtility), refreshes run on Caffeine's executor
+    private final AsyncLoadingCache<UUID, NotificationPreference> preferences;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
 
     @Value("${notification-svc.failure-message.clear-history}")
     private String notificationServiceFailureMessage;
 
-    public NotificationService(NotificationClient notificationClient) {
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public NotificationService(NotificationClient notificationClient, CacheManager cacheManager,
+                               CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                               @Value("${cache.notification-preferences.spec}") String preferencesSpec) {
         this.notificationClient = notificationClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NOTIFICATION_SVC);
+        this.bulkhead = bulkheadRegistry.bulkhead(NOTIFICATION_SVC);
+        this.preferences = Caffeine.from(preferencesSpec).buildAsync(this::fetchNotificationPreference);
+
+        // Registered with the other caches, so actuator publishes its hit / miss counts too
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache("notificationPreferences", (AsyncCache<Object, Object>) (AsyncCache<?, ?>) preferences);
+        }
     }
 
     public void saveNotificationPreference(UUID userId, boolean isEmailEnabled, String email) {
@@ -41,19 +81,44 @@ public class NotificationService {
 
         // Invoke Feign client and execute HTTP Post Request.
         try {
-            ResponseEntity<Void> httpResponse = notificationClient.upsertNotificationPreference(notificationPreference);
+            ResponseEntity<Void> httpResponse = call(() -> notificationClient.upsertNotificationPreference(notificationPreference));
             if (!httpResponse.getStatusCode().is2xxSuccessful()) {
                 log.error("[Feign call to notification-svc failed] Can't save user preference for user with id = [%s]".formatted(userId));
+                preferences.synchronous().invalidate(userId);
+                return;
             }
+            // Write-through, the next read doesn't have to call notification-svc
+            preferences.synchronous().put(userId, new NotificationPreference("EMAIL", isEmailEnabled, email));
         } catch (Exception e) {
             log.error("Unable to call notification-svc.");
             throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
         }
     }
 
+    // Throws NotificationServiceFeignCallException when the preference isn't cached and notification-svc can't be reached
     public NotificationPreference getNotificationPreference(UUID userId) {
 
-        ResponseEntity<NotificationPreference> httpResponse = notificationClient.getUserPreference(userId);
+        try {
+            return CacheUtility.getOrLoad(preferences, userId, () -> fetchNotificationPreference(userId));
+        } catch (Exception e) {
+            log.warn("Can't load notification preference for user with id = [%s]: %s".formatted(userId, e.getMessage()));
+            throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
+        }
+    }
+
+    // For pages that should still render while notification-svc is down
+    public Optional<NotificationPreference> findNotificationPreference(UUID userId) {
+
+        try {
+            return Optional.ofNullable(getNotificationPreference(userId));
+        } catch (NotificationServiceFeignCallException e) {
+            return Optional.empty();
+        }
+    }
+
+    private NotificationPreference fetchNotificationPreference(UUID userId) {
+
+        ResponseEntity<NotificationPreference> httpResponse = call(() -> notificationClient.getUserPreference(userId));
 
         if (!httpResponse.getStatusCode().is2xxSuccessful()) {
             throw new RuntimeException("Notification preference for user id [%s] does not exist.".formatted(userId));
@@ -62,37 +127,36 @@ public class NotificationService {
         return httpResponse.getBody();
     }
 
-    public List<Notification> getNotificationHistory(UUID userId) {
+    // Status counts are grouped by notification-svc, so only three numbers come over the wire
+    public NotificationSummary getNotificationSummary(UUID userId) {
 
-        ResponseEntity<List<Notification>> httpResponse = notificationClient.getNotificationHistory(userId);
-
-        return httpResponse.getBody();
+        try {
+            ResponseEntity<NotificationSummary> httpResponse = call(() -> notificationClient.getNotificationSummary(userId));
+            return httpResponse.getBody();
+        } catch (Exception e) {
+            log.warn("Can't load notification summary for user with id = [%s]: %s".formatted(userId, e.getMessage()));
+            return new NotificationSummary();
+        }
     }
 
-    public void sendNotification(UUID userId, String emailSubject, String emailBody) {
+    // The latest notifications, newest first
+    public List<Notification> getRecentNotifications(UUID userId, int page, int size) {
 
-        NotificationRequest notificationRequest = NotificationRequest.builder()
-                .userId(userId)
-                .subject(emailSubject)
-                .body(emailBody)
-                .build();
-
-        // Servive to Service
-        ResponseEntity<Void> httpResponse;
         try {
-            httpResponse = notificationClient.sendNotification(notificationRequest);
-            if (!httpResponse.getStatusCode().is2xxSuccessful()) {
-                log.error("[Feign call to notification-svc failed] Can't send email to user with id = [%s]".formatted(userId));
-            }
+            ResponseEntity<List<Notification>> httpResponse = call(() -> notificationClient.getRecentNotifications(userId, page, size));
+            return httpResponse.getBody();
         } catch (Exception e) {
-            log.warn("Can't send email to user with id = [%s] due to 500 Internal Server Error.".formatted(userId));
+            log.warn("Can't load notification history for user with id = [%s]: %s".formatted(userId, e.getMessage()));
+            return List.of();
         }
     }
 
     public void updateNotificationPreference(UUID userId, boolean enabled, User user) {
         if (user.getEmail() != null && !user.getEmail().isBlank()) {
             try {
-                notificationClient.updateNotificationPreference(userId, enabled);
+                call(() -> notificationClient.updateNotificationPreference(userId, enabled));
+                // A new object is cached, the old one may still be used by a page that is rendering
+                preferences.synchronous().asMap().computeIfPresent(userId, (id, preference) -> new NotificationPreference(preference.getType(), enabled, preference.getContactInfo()));
             } catch (Exception e) {
                 log.warn("Can't update notification preferences for user with id = [%s].".formatted(userId));
                 throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
@@ -102,10 +166,29 @@ public class NotificationService {
         }
     }
 
+    // Sends one notification to each of many users with a single call to the bulk endpoint
+    // For messages that aren't tied to a change in this app (promotions), those are NotificationEvents written to the outbox
+    public void sendNotifications(List<NotificationRequest> notificationRequests) {
+
+        if (notificationRequests.isEmpty()) {
+            return;
+        }
+
+        try {
+            ResponseEntity<Void> httpResponse = call(() -> notificationClient.sendNotifications(notificationRequests));
+            if (!httpResponse.getStatusCode().is2xxSuccessful()) {
+                throw new IllegalStateException("notification-svc responded with %s".formatted(httpResponse.getStatusCode()));
+            }
+        } catch (Exception e) {
+            log.error("Unable to send %d notifications through notification-svc: %s".formatted(notificationRequests.size(), e.getMessage()));
+            throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
+        }
+    }
+
     public void clearHistory(UUID userId) {
 
         try {
-            notificationClient.clearHistory(userId);
+            call(() -> notificationClient.clearHistory(userId));
         } catch (Exception e) {
             log.error("Unable to call notification-svc for clear notification history.".formatted(userId));
             throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
@@ -115,11 +198,15 @@ public class NotificationService {
     public void retryFailed(UUID userId) {
 
         try {
-            notificationClient.retryFailedNotifications(userId);
+            call(() -> notificationClient.retryFailedNotifications(userId));
         } catch (Exception e) {
             log.error("Unable to call notification-svc for clear notification history.".formatted(userId));
             throw new NotificationServiceFeignCallException(notificationServiceFailureMessage);
         }
     }
 
+    private <T> T call(Supplier<T> feignCall) {
+
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, feignCall)).get();
+    }
 }
@@ -9,6 +9,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+// Review feed of a game is read newest first, with or without a type filter
+@Table(indexes = {
+        @Index(name = "idx_review_game_created_on_id", columnList = "game_id, createdOn, id"),
+        @Index(name = "idx_review_game_type_created_on_id", columnList = "game_id, type, createdOn, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
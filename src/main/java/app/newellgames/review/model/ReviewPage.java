@@ -0,0 +1,36 @@
+package app.newellgames.review.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// One page of a game's review feed, the next page starts after the last review (createdOn, id) of this one
+@Getter
+@AllArgsConstructor
+public class ReviewPage {
+
+    private final List<Review> reviews;
+
+    private final boolean hasNext;
+
+    // Pages are fetched with size + 1 rows, the extra row only tells if there is a next page
+    public static ReviewPage of(List<Review> fetched, int size) {
+
+        if (fetched.size() > size) {
+            return new ReviewPage(List.copyOf(fetched.subList(0, size)), true);
+        }
+
+        return new ReviewPage(List.copyOf(fetched), false);
+    }
+
+    public LocalDateTime getNextCreatedOn() {
+        return hasNext ? reviews.get(reviews.size() - 1).getCreatedOn() : null;
+    }
+
+    public UUID getNextId() {
+        return hasNext ? reviews.get(reviews.size() - 1).getId() : null;
+    }
+}
@@ -1,12 +1,55 @@
 package app.newellgames.review.repository;
 
-import app.newellgames.game.model.Game;
 import app.newellgames.review.model.Review;
+import app.newellgames.review.model.ReviewType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
+
+    // Review feed of a game - keyset page on (createdOn, id) desc, one query per case so every one seeks through its own index:
+    // (game, createdOn, id) for all reviews, (game, type, createdOn, id) for one type
+    // The cursor is written out like the shop's, MySQL often can't use the index for a row value (createdOn, id) < (...)
+    @Query("""
+            SELECT r FROM Review r JOIN FETCH r.author
+            WHERE r.game.id = :gameId
+            ORDER BY r.createdOn DESC, r.id DESC
+            """)
+    List<Review> findFeedFirstPage(@Param("gameId") UUID gameId, Pageable pageable);
+
+    @Query("""
+            SELECT r FROM Review r JOIN FETCH r.author
+            WHERE r.game.id = :gameId AND (r.createdOn < :afterCreatedOn OR (r.createdOn = :afterCreatedOn AND r.id < :afterId))
+            ORDER BY r.createdOn DESC, r.id DESC
+            """)
+    List<Review> findFeedPageAfter(@Param("gameId") UUID gameId,
+                                   @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+                                   @Param("afterId") UUID afterId,
+                                   Pageable pageable);
+
+    @Query("""
+            SELECT r FROM Review r JOIN FETCH r.author
+            WHERE r.game.id = :gameId AND r.type = :type
+            ORDER BY r.createdOn DESC, r.id DESC
+            """)
+    List<Review> findFeedFirstPageByType(@Param("gameId") UUID gameId, @Param("type") ReviewType type, Pageable pageable);
+
+    @Query("""
+            SELECT r FROM Review r JOIN FETCH r.author
+            WHERE r.game.id = :gameId AND r.type = :type AND (r.createdOn < :afterCreatedOn OR (r.createdOn = :afterCreatedOn AND r.id < :afterId))
+            ORDER BY r.createdOn DESC, r.id DESC
+            """)
+    List<Review> findFeedPageByTypeAfter(@Param("gameId") UUID gameId,
+                                         @Param("type") ReviewType type,
+                                         @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+                                         @Param("afterId") UUID afterId,
+                                         Pageable pageable);
 }
@@ -2,29 +2,43 @@ package app.newellgames.review.service;
 
 import app.newellgames.game.model.Game;
 import app.newellgames.game.service.GameService;
+import app.newellgames.notification.event.NotificationEvent;
+import app.newellgames.notification.service.NotificationEventPublisher;
 import app.newellgames.review.model.Review;
+import app.newellgames.review.model.ReviewPage;
+import app.newellgames.review.model.ReviewType;
 import app.newellgames.review.repository.ReviewRepository;
 import app.newellgames.user.model.User;
 import app.newellgames.user.service.UserService;
 import app.newellgames.web.dto.AddReviewRequest;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserService userService;
     private final GameService gameService;
+    private final NotificationEventPublisher notificationEventPublisher;
 
-    public ReviewService(ReviewRepository reviewRepository, UserService userService, GameService gameService) {
+    @Value("${reviews.page-size:20}")
+    private int pageSize;
+
+    public ReviewService(ReviewRepository reviewRepository, UserService userService, GameService gameService, NotificationEventPublisher notificationEventPublisher) {
         this.reviewRepository = reviewRepository;
         this.userService = userService;
         this.gameService = gameService;
+        this.notificationEventPublisher = notificationEventPublisher;
     }
 
     // Creates and saves the review to the DB, assigns it to the User and the Game
+    // The ReviewPosted event is written to the outbox in this transaction, notification-svc emails the review to its author
     @Transactional
     public void addReview (User user, Game game, AddReviewRequest addReviewRequest) {
         Review review = Review.builder()
@@ -39,5 +53,27 @@ public class ReviewService {
         reviewRepository.save(review);
         userService.addUsersReview(review, user);
         gameService.addGameReview(review, game);
+        notificationEventPublisher.publish(NotificationEvent.reviewPosted(user.getId(), game.getTitle(), review.getTitle(), review.getReviewDescription()));
+    }
+
+    // Gets one page of the game's reviews, newest first
+    // - without a cursor the newest reviews are returned, otherwise the ones after (afterCreatedOn, afterId)
+    // - a null type means all types
+    public ReviewPage getReviewPage(UUID gameId, ReviewType type, LocalDateTime afterCreatedOn, UUID afterId) {
+
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        boolean firstPage = afterCreatedOn == null || afterId == null;
+        List<Review> fetched;
+        if (type == null) {
+            fetched = firstPage
+                    ? reviewRepository.findFeedFirstPage(gameId, limit)
+                    : reviewRepository.findFeedPageAfter(gameId, afterCreatedOn, afterId, limit);
+        } else {
+            fetched = firstPage
+                    ? reviewRepository.findFeedFirstPageByType(gameId, type, limit)
+                    : reviewRepository.findFeedPageByTypeAfter(gameId, type, afterCreatedOn, afterId, limit);
+        }
+
+        return ReviewPage.of(fetched, pageSize);
     }
 }
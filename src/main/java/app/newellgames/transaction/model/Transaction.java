@@ -9,6 +9,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_created_on_id", columnList = "createdOn, id"),
+        @Index(name = "idx_transaction_owner_created_on_id", columnList = "owner_id, createdOn, id"),
+        @Index(name = "idx_transaction_status_created_on_id", columnList = "status, createdOn, id"),
+        @Index(name = "idx_transaction_type_created_on_id", columnList = "type, createdOn, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
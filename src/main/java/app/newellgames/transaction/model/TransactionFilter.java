@@ -0,0 +1,28 @@
+package app.newellgames.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Filters of the admin ledger, every field is optional
+// - owner is a user id or an exact username
+// - from and to are inclusive days
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionFilter {
+
+    private String owner;
+
+    private TransactionStatus status;
+
+    private TransactionType type;
+
+    private LocalDate from;
+
+    private LocalDate to;
+}
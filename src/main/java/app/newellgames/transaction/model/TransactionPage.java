@@ -0,0 +1,36 @@
+package app.newellgames.transaction.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// One page of the admin ledger, the next page starts after the last transaction (createdOn, id) of this one
+@Getter
+@AllArgsConstructor
+public class TransactionPage {
+
+    private final List<Transaction> transactions;
+
+    private final boolean hasNext;
+
+    // Pages are fetched with size + 1 rows, the extra row only tells if there is a next page
+    public static TransactionPage of(List<Transaction> fetched, int size) {
+
+        if (fetched.size() > size) {
+            return new TransactionPage(List.copyOf(fetched.subList(0, size)), true);
+        }
+
+        return new TransactionPage(List.copyOf(fetched), false);
+    }
+
+    public LocalDateTime getNextCreatedOn() {
+        return hasNext ? transactions.get(transactions.size() - 1).getCreatedOn() : null;
+    }
+
+    public UUID getNextId() {
+        return hasNext ? transactions.get(transactions.size() - 1).getId() : null;
+    }
+}
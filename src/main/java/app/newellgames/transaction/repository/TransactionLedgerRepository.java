@@ -0,0 +1,16 @@
+package app.newellgames.transaction.repository;
+
+import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Admin ledger query, the WHERE clause is built only from the filters that are set
+public interface TransactionLedgerRepository {
+
+    List<Transaction> findLedgerPage(UUID ownerId, TransactionStatus status, TransactionType type, LocalDateTime from, LocalDateTime to,
+                                     LocalDateTime afterCreatedOn, UUID afterId, int limit);
+}
@@ -0,0 +1,67 @@
+package app.newellgames.transaction.repository;
+
+import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keyset page on (createdOn, id) desc
+// - Only the filters that are set end up in the query, so MySQL picks the matching (column, createdOn, id) index
+//   instead of planning for a "? IS NULL OR column = ?" that may match any row
+// - The cursor is written out as createdOn < :afterCreatedOn OR (createdOn = :afterCreatedOn AND id < :afterId), like the shop's,
+//   MySQL often can't turn the row value (createdOn, id) < (...) into a range scan on the index
+class TransactionLedgerRepositoryImpl implements TransactionLedgerRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transaction> findLedgerPage(UUID ownerId, TransactionStatus status, TransactionType type, LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime afterCreatedOn, UUID afterId, int limit) {
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (ownerId != null) {
+            conditions.add("t.owner.id = :ownerId");
+            parameters.put("ownerId", ownerId);
+        }
+        if (status != null) {
+            conditions.add("t.status = :status");
+            parameters.put("status", status);
+        }
+        if (type != null) {
+            conditions.add("t.type = :type");
+            parameters.put("type", type);
+        }
+        if (from != null) {
+            conditions.add("t.createdOn >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("t.createdOn < :to");
+            parameters.put("to", to);
+        }
+        if (afterCreatedOn != null && afterId != null) {
+            conditions.add("(t.createdOn < :afterCreatedOn OR (t.createdOn = :afterCreatedOn AND t.id < :afterId))");
+            parameters.put("afterCreatedOn", afterCreatedOn);
+            parameters.put("afterId", afterId);
+        }
+
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        TypedQuery<Transaction> query = entityManager.createQuery(
+                "SELECT t FROM Transaction t JOIN FETCH t.owner" + where + " ORDER BY t.createdOn DESC, t.id DESC", Transaction.class);
+        parameters.forEach(query::setParameter);
+
+        return query.setMaxResults(limit).getResultList();
+    }
+}
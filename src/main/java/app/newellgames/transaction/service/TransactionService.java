@@ -1,28 +1,38 @@
 package app.newellgames.transaction.service;
 
 import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionFilter;
+import app.newellgames.transaction.model.TransactionPage;
 import app.newellgames.transaction.model.TransactionStatus;
 import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.repository.TransactionRepository;
 import app.newellgames.user.model.User;
+import app.newellgames.user.repository.UserRepository;
 import app.newellgames.utility.UuidUtility;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class TransactionService {
     private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
 
-    public TransactionService(TransactionRepository transactionRepository) {
+    @Value("${transactions.admin.page-size:50}")
+    private int adminPageSize;
+
+    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository) {
         this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
     }
 
     // Initialization of Transaction and saving it to DB
-    public void initializeTransaction(User user, BigDecimal amount, TransactionStatus status, TransactionType type) {
+    public Transaction initializeTransaction(User user, BigDecimal amount, TransactionStatus status, TransactionType type) {
         Transaction transaction = Transaction.builder()
                 .owner(user)
                 .amount(amount)
@@ -32,6 +42,12 @@ public class TransactionService {
                 .type(type)
                 .build();
 
+        return transactionRepository.save(transaction);
+    }
+
+    // Used when the balance change of an already saved transaction didn't go through
+    public void markAsFailed(Transaction transaction) {
+        transaction.setStatus(TransactionStatus.FAILED);
         transactionRepository.save(transaction);
     }
 
@@ -40,21 +56,33 @@ public class TransactionService {
         return transactionRepository.findByOwnerOrderByCreatedOnDesc(user);
     }
 
-    // Gets all transactions that have been made on the app, used for Admin's Transaction tab where he can see all transactions
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAllByOrderByCreatedOnDesc();
+    // Gets all transactions that user made by his ID and orders them by date descending
+    public List<Transaction> getAllTransactionsByUserId(UUID userId) {
+        return transactionRepository.findByOwnerIdOrderByCreatedOnDesc(userId);
     }
 
-    // Gets transactions by User ID or Username, used in Transactions so users can search for specific transactions
-    public List<Transaction> getTransactionByOwnerIdOrUsername(String searchParam) {
-        if (UuidUtility.isValid(searchParam)) {
-            if(!transactionRepository.findByOwnerIdOrderByCreatedOnDesc(UUID.fromString(searchParam)).isEmpty()) {
-                return transactionRepository.findByOwnerIdOrderByCreatedOnDesc(UUID.fromString(searchParam));
-            } else {
-                return transactionRepository.findById(UUID.fromString(searchParam)).stream().toList();
+    // Gets one page of all transactions made on the app, used for Admin's Transaction tab
+    // - without a cursor the newest transactions are returned, otherwise the ones after (afterCreatedOn, afterId)
+    // - owner filter is a user id or an exact username, a username is resolved to the id first so the ledger is filtered on owner_id
+    public TransactionPage getLedgerPage(TransactionFilter filter, LocalDateTime afterCreatedOn, UUID afterId) {
+
+        UUID ownerId = null;
+        if (filter.getOwner() != null && !filter.getOwner().isBlank()) {
+            Optional<UUID> owner = UuidUtility.isValid(filter.getOwner())
+                    ? Optional.of(UUID.fromString(filter.getOwner()))
+                    : userRepository.findIdByUsername(filter.getOwner().trim());
+            if (owner.isEmpty()) {
+                return TransactionPage.of(List.of(), adminPageSize);
             }
-        } else {
-            return transactionRepository.findByOwnerUsernameContainingIgnoreCaseOrderByCreatedOnDesc(searchParam);
+            ownerId = owner.get();
         }
+
+        LocalDateTime from = filter.getFrom() == null ? null : filter.getFrom().atStartOfDay();
+        LocalDateTime to = filter.getTo() == null ? null : filter.getTo().plusDays(1).atStartOfDay();
+
+        List<Transaction> fetched = transactionRepository.findLedgerPage(ownerId, filter.getStatus(), filter.getType(),
+                from, to, afterCreatedOn, afterId, adminPageSize + 1);
+
+        return TransactionPage.of(fetched, adminPageSize);
     }
 }
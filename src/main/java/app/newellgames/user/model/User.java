@@ -15,6 +15,18 @@ import java.util.UUID;
 
 @Entity
 @Table (name = "users")
+@NamedEntityGraph(name = "User.header")
+@NamedEntityGraph(name = "User.library",
+        attributeNodes = @NamedAttributeNode("myGames"))
+@NamedEntityGraph(name = "User.reviews",
+        attributeNodes = @NamedAttributeNode(value = "myReviews", subgraph = "review.game"),
+        subgraphs = @NamedSubgraph(name = "review.game", attributeNodes = @NamedAttributeNode("game")))
+@NamedEntityGraph(name = "User.cart",
+        attributeNodes = @NamedAttributeNode(value = "cart", subgraph = "cart.items"),
+        subgraphs = {
+                @NamedSubgraph(name = "cart.items", attributeNodes = @NamedAttributeNode(value = "items", subgraph = "item.game")),
+                @NamedSubgraph(name = "item.game", attributeNodes = @NamedAttributeNode("game"))
+        })
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -34,7 +46,8 @@ public class User {
     @Column
     private String email;
 
-    @Column(nullable = false)
+    // Changed only through BalanceService (atomic UPDATE + ledger entry), so saving a stale User can't overwrite it
+    @Column(nullable = false, updatable = false)
     private BigDecimal balance;
 
     @Column(nullable = false)
@@ -52,16 +65,18 @@ public class User {
 
     private boolean isActive;
 
-    @ManyToMany (fetch = FetchType.EAGER)
+    // Collections are lazy, every page asks for the graph it needs through UserFetchProfile
+    @ManyToMany (fetch = FetchType.LAZY)
     @JoinTable(name = "users_games",
             joinColumns = @JoinColumn (name = "user_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn (name = "game_id", referencedColumnName = "id"))
+            inverseJoinColumns = @JoinColumn (name = "game_id", referencedColumnName = "id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_users_games_user_game", columnNames = {"user_id", "game_id"}))
     private List<Game> myGames = new ArrayList<>();
 
-    @OneToMany(mappedBy = "author", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "author", fetch = FetchType.LAZY)
     private List<Review> myReviews = new ArrayList<>();
 
-    @OneToMany(mappedBy = "owner", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
     private List<Transaction> myTransactions = new ArrayList<>();
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
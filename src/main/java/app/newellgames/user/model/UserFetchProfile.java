@@ -0,0 +1,10 @@
+package app.newellgames.user.model;
+
+// Which part of the User aggregate a page needs, every profile maps to a named entity graph on User
+// - HEADER - only the user's own columns (navbar, profile, deposit...)
+// - LIBRARY - user's games
+// - REVIEWS - user's reviews with their games
+// - CART - user's cart with its items and games
+public enum UserFetchProfile {
+    HEADER, LIBRARY, REVIEWS, CART
+}
@@ -0,0 +1,39 @@
+package app.newellgames.user.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Read-only projection of a user, enough for the header, pages that show only username and balance and Admin's Users tab
+// Built with a single query (no collections are loaded) and cached per user id until his balance, profile, role, status or cart changes
+@Getter
+@Builder
+@AllArgsConstructor
+public class UserSummary implements Serializable {
+
+    // Constructor expression and grouping used by UserRepository, the cart items are joined for the count
+    public static final String SELECT = "SELECT new app.newellgames.user.model.UserSummary(u.id, u.username, u.email, u.balance, u.role, u.profilePicture, u.isActive, COUNT(i.id)) " +
+            "FROM User u LEFT JOIN u.cart c LEFT JOIN c.items i ";
+
+    public static final String GROUP_BY = " GROUP BY u.id, u.username, u.email, u.balance, u.role, u.profilePicture, u.isActive";
+
+    private final UUID id;
+
+    private final String username;
+
+    private final String email;
+
+    private final BigDecimal balance;
+
+    private final UserRole role;
+
+    private final String profilePicture;
+
+    private final boolean active;
+
+    private final long cartCount;
+}
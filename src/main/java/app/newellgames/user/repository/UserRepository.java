@@ -1,11 +1,18 @@
 package app.newellgames.user.repository;
 
 import app.newellgames.user.model.User;
-import feign.Param;
+import app.newellgames.user.model.UserSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,10 +22,57 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByUsername(String username);
 
-    List<User> findAllByOrderByUsernameAsc();
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<UUID> findIdByUsername(@Param("username") String username);
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY u.createdOn DESC")
-    List<User> searchByUsernameOrEmail(@Param("query") String query);
+    @EntityGraph("User.header")
+    Optional<User> findHeaderById(UUID id);
+
+    @EntityGraph("User.library")
+    Optional<User> findWithLibraryById(UUID id);
+
+    @EntityGraph("User.reviews")
+    Optional<User> findWithReviewsById(UUID id);
+
+    @EntityGraph("User.cart")
+    Optional<User> findWithCartById(UUID id);
+
+    @Query(UserSummary.SELECT + "WHERE u.id = :id" + UserSummary.GROUP_BY)
+    Optional<UserSummary> findSummaryById(@Param("id") UUID id);
+
+    @Query(UserSummary.SELECT + UserSummary.GROUP_BY + " ORDER BY u.username ASC")
+    Slice<UserSummary> findSummariesOrderByUsername(Pageable pageable);
+
+    // Balance changes - only used by BalanceService, the balance column is not written by entity updates
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.balance = u.balance + :amount WHERE u.id = :id")
+    int creditBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.balance = u.balance - :amount WHERE u.id = :id AND u.balance >= :amount")
+    int debitBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT u.balance FROM User u WHERE u.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") UUID id);
+
+    // Ownership lookups - only users_games is read, the games themselves are not loaded
+    boolean existsByIdAndMyGamesId(UUID id, UUID gameId);
+
+    @Query("SELECT g.id FROM User u JOIN u.myGames g WHERE u.id = :id")
+    List<UUID> findOwnedGameIds(@Param("id") UUID id);
+
+    // Adds the games of the given cart items to the library with one INSERT ... SELECT, games the user already owns are skipped
+    // Only the listed items count, an item added to the cart meanwhile by another request isn't granted
+    // DISTINCT covers a game that is in the cart more than once, NOT EXISTS only sees rows that were there before the statement
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO users_games (user_id, game_id) " +
+            "SELECT DISTINCT :userId, ci.product_id FROM cart_items ci WHERE ci.cart_id = :cartId AND ci.id IN (:itemIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM users_games ug WHERE ug.user_id = :userId AND ug.game_id = ci.product_id)", nativeQuery = true)
+    int addGamesFromCartItems(@Param("userId") UUID userId, @Param("cartId") UUID cartId, @Param("itemIds") Collection<UUID> itemIds);
+
+    @Query(UserSummary.SELECT + "WHERE LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))"
+            + UserSummary.GROUP_BY + ", u.createdOn ORDER BY u.createdOn DESC")
+    List<UserSummary> searchSummariesByUsernameOrEmail(@Param("query") String query);
 
     Optional<User> findByEmail(String email);
 }
@@ -0,0 +1,65 @@
+package app.newellgames.user.service;
+
+import app.newellgames.user.repository.UserRepository;
+import app.newellgames.utility.CacheUtility;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.UUID;
+
+// Answers "does the user own this game" without loading the library
+// - the ids of the user's games are read from users_games only and kept as an immutable set in the "ownedGameIds" cache
+// - a single check on a user that is not cached is one EXISTS style query instead of loading the whole set
+// - the set is evicted after a purchase commits
+// - "ownedGameIds" is an async Caffeine cache, a miss is loaded on the caller's thread outside of the cache's lock (see CacheUtility)
+@Service
+public class OwnershipService {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Object, Object> ownedGameIds;
+
+    @Autowired
+    public OwnershipService(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.ownedGameIds = ((CaffeineCache) cacheManager.getCache("ownedGameIds")).getAsyncCache();
+    }
+
+    // Ids of all games the user owns, used by the shop so owned games can't be bought again
+    // - loaded once per user, concurrent callers wait for the same load
+    // - an eviction during the load drops it, so an old library can't outlive a purchase
+    @SuppressWarnings("unchecked")
+    public Set<UUID> getOwnedGameIds(UUID userId) {
+        return (Set<UUID>) CacheUtility.getOrLoad(ownedGameIds, userId, () -> Set.copyOf(userRepository.findOwnedGameIds(userId)));
+    }
+
+    public boolean ownsGame(UUID userId, UUID gameId) {
+        @SuppressWarnings("unchecked")
+        Set<UUID> cached = (Set<UUID>) ownedGameIds.synchronous().getIfPresent(userId);
+        if (cached != null) {
+            return cached.contains(gameId);
+        }
+
+        return userRepository.existsByIdAndMyGamesId(userId, gameId);
+    }
+
+    // Inside a transaction the set is evicted after commit, so a read in between can't cache the old library again
+    public void evictAfterCommit(UUID userId) {
+        ownedGameIds.synchronous().invalidate(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ownedGameIds.synchronous().invalidate(userId);
+            }
+        });
+    }
+}
@@ -1,10 +1,12 @@
 package app.newellgames.user.service;
 
-import app.newellgames.cart.model.Cart;
-import app.newellgames.cart.model.CartItem;
+import app.newellgames.balance.service.BalanceService;
 import app.newellgames.cart.service.CartService;
+import app.newellgames.cart.service.CheckoutService;
 import app.newellgames.exception.*;
 import app.newellgames.game.model.Game;
+import app.newellgames.notification.event.NotificationEvent;
+import app.newellgames.notification.service.NotificationEventPublisher;
 import app.newellgames.notification.service.NotificationService;
 import app.newellgames.review.model.Review;
 import app.newellgames.security.AuthenticationMetadata;
@@ -13,7 +15,9 @@ import app.newellgames.transaction.model.TransactionStatus;
 import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.service.TransactionService;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.model.UserRole;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.repository.UserRepository;
 import app.newellgames.utility.UuidUtility;
 import app.newellgames.web.dto.DepositRequest;
@@ -21,8 +25,12 @@ import app.newellgames.web.dto.EditProfileRequest;
 import app.newellgames.web.dto.RegisterRequest;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -41,19 +49,30 @@ public class UserService implements UserDetailsService {
     private final PasswordEncoder passwordEncoder;
     private final TransactionService transactionService;
     private final NotificationService notificationService;
+    private final BalanceService balanceService;
+    private final CheckoutService checkoutService;
+    private final OwnershipService ownershipService;
+    private final NotificationEventPublisher notificationEventPublisher;
+
+    @Value("${users.admin.page-size:50}")
+    private int adminPageSize;
 
     @Autowired
-    public UserService(UserRepository userRepository, CartService cartService, PasswordEncoder passwordEncoder, TransactionService transactionService, NotificationService notificationService) {
+    public UserService(UserRepository userRepository, CartService cartService, PasswordEncoder passwordEncoder, TransactionService transactionService, NotificationService notificationService, BalanceService balanceService, CheckoutService checkoutService, OwnershipService ownershipService, NotificationEventPublisher notificationEventPublisher) {
         this.userRepository = userRepository;
         this.cartService = cartService;
         this.passwordEncoder = passwordEncoder;
         this.transactionService = transactionService;
         this.notificationService = notificationService;
+        this.balanceService = balanceService;
+        this.checkoutService = checkoutService;
+        this.ownershipService = ownershipService;
+        this.notificationEventPublisher = notificationEventPublisher;
     }
 
     // Register the user, assign him a cart, save the default notification preference (save user to DB of a monolith and save his notification preference into MicroService's DB)
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = "userPages", allEntries = true)
     public User register(RegisterRequest registerRequest) {
         Optional<User> optionalUser = userRepository.findByUsername(registerRequest.getUsername());
         if (optionalUser.isPresent()) {
@@ -90,7 +109,12 @@ public class UserService implements UserDetailsService {
     // - Edit Email
     // - Edit Profile Picture
     // I allow users to register without an email, but if they want to have notifications, they have to add their email
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            // before invocation, so the old username is evicted and not the new one
+            @CacheEvict(value = "usersByUsername", key = "#user.username", beforeInvocation = true),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void editProfile(User user, EditProfileRequest editProfileRequest) {
         User userToEdit = getById(user.getId());
 
@@ -136,12 +160,7 @@ public class UserService implements UserDetailsService {
                     userToEdit.getEmail()
             );
 
-            notificationService.sendNotification(
-                    userToEdit.getId(),
-                    "Your account's information has been updated.",
-                    "You've successfully updated your account information.\nEmail: %s\nUsername: %s\n"
-                            .formatted(userToEdit.getEmail(), userToEdit.getUsername())
-            );
+            notificationEventPublisher.publish(NotificationEvent.profileUpdated(userToEdit.getId(), userToEdit.getUsername(), userToEdit.getEmail()));
         }
 
         if (!errors.isEmpty()) {
@@ -155,113 +174,103 @@ public class UserService implements UserDetailsService {
     }
 
     // Method responsible for topping up the user's balance
+    // Balance is credited atomically by BalanceService, which also writes the ledger entry for the transaction
     // Saves a transaction in the DB, user's can see a list with their transactions and Admin can see all transactions that occurred in the app
     // Sends notification to the user if they have assigned email and enabled notifications
-    @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    // The FAILED transaction and its notification are committed before FailedTopUpException reaches the caller
+    @Transactional(dontRollbackOn = FailedTopUpException.class)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void topUp (User user, DepositRequest depositRequest) {
         if (user.isActive()) {
+            Transaction transaction = transactionService.initializeTransaction(user, depositRequest.getAmount(), TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT);
+            balanceService.credit(user.getId(), depositRequest.getAmount(), transaction.getId());
+            // Keeps the loaded user in step for the rest of the request, the column itself is not updatable
             user.setBalance(user.getBalance().add(depositRequest.getAmount()));
-            userRepository.save(user);
-            transactionService.initializeTransaction(user, depositRequest.getAmount(), TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT);
-            notificationService.sendNotification(user.getId(), "Your deposit has been successful!", "Thank you, %s! Funds were added to your account's balance.".formatted(user.getUsername()));
+            notificationEventPublisher.publish(NotificationEvent.depositCompleted(user.getId(), user.getUsername(), depositRequest.getAmount(), true));
             return;
         }
 
         transactionService.initializeTransaction(user, depositRequest.getAmount(), TransactionStatus.FAILED, TransactionType.DEPOSIT);
-        notificationService.sendNotification(user.getId(), "Something went wrong!", "We apologize, %s! Funds weren't added to your account's balance. Please, try again later.".formatted(user.getUsername()));
+        notificationEventPublisher.publish(NotificationEvent.depositCompleted(user.getId(), user.getUsername(), depositRequest.getAmount(), false));
         throw new FailedTopUpException("There was an error with top-up, funds weren't added.");
     }
 
     // Method for purchasing all items in user's cart
-    // Saves a transaction in the DB
-    // Adds games to the user's library
-    // Clears his cart
-    // Sends a notification with a list of purchased games
+    // CheckoutService debits the balance, saves the transaction, adds the games to the library and purges the cart
+    // with set-based statements in this one transaction
+    // Sends a notification with a list of purchased games, the event is built before the checkout purges the cart
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void purchaseCartItems (User user) {
-        Cart cart = user.getCart();
-        BigDecimal totalPrice = cartService.calculateTotalPrice(cart);
-        if (totalPrice.compareTo(user.getBalance()) > 0) {
-            transactionService.initializeTransaction(user, totalPrice, TransactionStatus.FAILED, TransactionType.PURCHASE);
-            return;
-        }
-
-        try {
-            List<String> gameTitles = cart.getItems().stream().map(CartItem::getGame).map(Game::getTitle).toList();
-
-            StringBuilder sb = new StringBuilder();
-
-            for (String title : gameTitles) {
-                sb.append("- %s%n".formatted(title));
-            }
-
-            notificationService.sendNotification(user.getId(), "Thank you for the purchase!", "Thank you! Games were added to your library!%n%s".formatted(sb.toString()));
-
-            addPurchasedGames(cart, user);
+        NotificationEvent purchaseCompleted = NotificationEvent.purchaseCompleted(user, user.getCart().getItems());
 
-            transactionService.initializeTransaction(user, totalPrice, TransactionStatus.SUCCESSFUL, TransactionType.PURCHASE);
-
-            cartService.clearAllItemsFromCart(user);
-        } catch (Exception e) {
-            throw new FailedPurchaseException("Something went wrong with purchasing these games.");
-        }
-    }
-
-    // Method that makes the purchase and deducts the total price of cart from user's balance
-    @CacheEvict(value = "users", allEntries = true)
-    public void addPurchasedGames(Cart cart, User user) {
-        List<CartItem> cartItems = cart.getItems();
-        for (CartItem cartItem : cartItems) {
-            user.getMyGames().add(cartItem.getGame());
+        if (!checkoutService.checkout(user)) {
+            return;
         }
 
-        user.setBalance(user.getBalance().subtract(cartService.calculateTotalPrice(cart)));
-
-        userRepository.save(user);
+        notificationEventPublisher.publish(purchaseCompleted);
     }
 
     // Method that assigns the review to the user (used by ReviewService addReview method)
-    // Sends a notification to the user that review has been added and it's content
-    @CacheEvict(value = "users", allEntries = true)
     public void addUsersReview (Review review, User user) {
         try {
             user.getMyReviews().add(review);
             userRepository.save(user);
-            notificationService.sendNotification(user.getId(), "Your review has been submitted.", "You've successfully added a review to the game %s.%nTitle: %s%nReview: %s%n".formatted(review.getGame().getTitle(), review.getTitle(), review.getReviewDescription()));
         } catch (Exception e) {
             throw new FailedToPostReviewException("Unfortunately something went wrong and your review wasn't posted.", user.getId());
         }
     }
 
-    // Simple check if user owns the game and is allowed to leave a review on it
+    // Checks if user owns the game and is allowed to leave a review on it, the library is not loaded
     public boolean checkIfUserOwnsTheGame (User user, Game game) {
-        return user.getMyGames().contains(game);
+        return ownershipService.ownsGame(user.getId(), game.getId());
     }
 
     // Switches user's role to Admin
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "usersByUsername", key = "#user.username"),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void switchUserRoleToAdmin (User user) {
         user.setRole(UserRole.ADMIN);
         userRepository.save(user);
     }
 
     // Switches user's role to User
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "usersByUsername", key = "#user.username"),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void switchUserRoleToUser (User user) {
         user.setRole(UserRole.USER);
         userRepository.save(user);
     }
 
     // Switches user's status to Active
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "usersByUsername", key = "#user.username"),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void switchUserStatusToActive(User user) {
         user.setActive(true);
         userRepository.save(user);
     }
 
     // Switches user's status to Inactive
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "userPages", allEntries = true),
+            @CacheEvict(value = "usersByUsername", key = "#user.username"),
+            @CacheEvict(value = "userSummaries", key = "#user.id")
+    })
     public void switchUserStatusToInActive(User user) {
         user.setActive(false);
         userRepository.save(user);
@@ -274,31 +283,46 @@ public class UserService implements UserDetailsService {
 
     // Gets user from DB by his ID
     public User getById(UUID userId) {
-        return userRepository.findById(userId).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(userId)));
+        return getById(userId, UserFetchProfile.HEADER);
+    }
+
+    // Gets user from DB by his ID together with the associations that the given profile needs
+    public User getById(UUID userId, UserFetchProfile profile) {
+        Optional<User> optionalUser = switch (profile) {
+            case HEADER -> userRepository.findHeaderById(userId);
+            case LIBRARY -> userRepository.findWithLibraryById(userId);
+            case REVIEWS -> userRepository.findWithReviewsById(userId);
+            case CART -> userRepository.findWithCartById(userId);
+        };
+
+        return optionalUser.orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(userId)));
     }
 
-    // Gets all users from DB and orders them by username ascending
-    @Cacheable("users")
-    public List<User> getAllUsers() {
-        return userRepository.findAllByOrderByUsernameAsc();
+    // Gets the lightweight summary of the user (id, username, balance, role, picture, cart count), used by pages that only need the header
+    @Cacheable(value = "userSummaries", key = "#userId")
+    public UserSummary getSummary(UUID userId) {
+        return userRepository.findSummaryById(userId).orElseThrow(() -> new DomainException("User with id [%s] does not exist.".formatted(userId)));
+    }
+
+    // Gets one page of users ordered by username ascending, used by Admin's Users tab
+    // The page holds UserSummary projections, so no entity (or its lazy collections) outlives the request in the cache
+    @Cacheable(value = "userPages", key = "#page")
+    public Slice<UserSummary> getUsersPage(int page) {
+        return userRepository.findSummariesOrderByUsername(PageRequest.of(page, adminPageSize));
     }
 
     // Gets users by ID, username or Email so Admin can search for a user in Users tab (shows all registered users to Admin)
-    public List<User> getUserByUsernameOrIdOrEmail(String query) {
+    public List<UserSummary> getUserByUsernameOrIdOrEmail(String query) {
         if (UuidUtility.isValid(query)) {
-            return userRepository.findById(UUID.fromString(query)).stream().toList();
+            return userRepository.findSummaryById(UUID.fromString(query)).stream().toList();
         } else {
-            return userRepository.searchByUsernameOrEmail(query);
+            return userRepository.searchSummariesByUsernameOrEmail(query);
         }
     }
 
     // Returns a set with game IDs that user own, used in Shop Controller so if user owns a game he can't buy it again
     public Set<UUID> getOwnedGameIds(User user) {
-        Set<UUID> ownedGameIds = new HashSet<>();
-        for (Game game : user.getMyGames()) {
-            ownedGameIds.add(game.getId());
-        }
-        return ownedGameIds;
+        return ownershipService.getOwnedGameIds(user.getId());
     }
 
     // Gets all transactions that user made, every user can see all of their transactions
@@ -306,8 +330,9 @@ public class UserService implements UserDetailsService {
         return transactionService.getAllTransactionsByUser(user);
     }
 
-    // Loads our principle
+    // Loads our principle, cached by username and evicted when role, status or username change
     @Override
+    @Cacheable(value = "usersByUsername", key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
         User user = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User with this username does not exist."));
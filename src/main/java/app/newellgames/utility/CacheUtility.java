@@ -0,0 +1,40 @@
+package app.newellgames.utility;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Read-through loads that don't pin a carrier thread when requests run on virtual threads
+// - Caffeine's Cache.get(key, loader) runs the loader inside the ConcurrentHashMap bin lock, a synchronized block,
+//   so a JDBC query or a Feign call in it pins the carrier thread on Java 21
+// - here only an incomplete future is put in the cache under that lock, the caller that put it runs the loader on its own thread,
+//   in its own transaction and outside of any monitor, other callers of the same key wait for that future
+// - an invalidation during the load removes the future, the loaded value is returned to the waiting callers but not cached
+public class CacheUtility {
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+
+        if (future == created) {
+            try {
+                created.complete(loader.get());
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
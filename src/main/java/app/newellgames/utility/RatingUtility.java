@@ -0,0 +1,21 @@
+package app.newellgames.utility;
+
+public class RatingUtility {
+
+    // z for 95% confidence
+    private static final double Z = 1.96;
+
+    // Lower bound of the Wilson score interval - a game with 9 of 10 positive reviews ranks below one with 90 of 100
+    public static double wilsonLowerBound(int positive, int negative) {
+        int total = positive + negative;
+        if (total == 0) {
+            return 0;
+        }
+
+        double share = (double) positive / total;
+        double zSquared = Z * Z;
+
+        return (share + zSquared / (2 * total) - Z * Math.sqrt((share * (1 - share) + zSquared / (4 * total)) / total))
+                / (1 + zSquared / total);
+    }
+}
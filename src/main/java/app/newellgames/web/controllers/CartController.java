@@ -4,8 +4,11 @@ import app.newellgames.cart.model.Cart;
 import app.newellgames.cart.model.CartItem;
 import app.newellgames.cart.service.CartService;
 import app.newellgames.game.model.Game;
+import app.newellgames.idempotency.service.IdempotencyService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.List;
@@ -25,21 +29,25 @@ import java.util.UUID;
 public class CartController {
     private final UserService userService;
     private final CartService cartService;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public CartController(UserService userService, CartService cartService) {
+    public CartController(UserService userService, CartService cartService, IdempotencyService idempotencyService) {
         this.userService = userService;
         this.cartService = cartService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
     public ModelAndView getCartPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
+        Cart cart = cartService.getCartByUserId(user.getId());
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("cart");
         modelAndView.addObject("user", user);
-        modelAndView.addObject("totalPrice", cartService.calculateTotalPrice(user.getCart()));
-        modelAndView.addObject("cartItems", user.getCart().getItems());
+        modelAndView.addObject("totalPrice", cartService.calculateTotalPrice(cart));
+        modelAndView.addObject("cartItems", cart.getItems());
+        modelAndView.addObject("idempotencyKey", idempotencyService.newKey());
 
 
         return modelAndView;
@@ -47,7 +55,7 @@ public class CartController {
 
     @PostMapping("/remove/{cartItemId}")
     public String removeItemFromCart (@PathVariable UUID cartItemId, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.CART);
 
         CartItem cartItem = cartService.getCartItem(cartItemId);
 
@@ -58,7 +66,7 @@ public class CartController {
 
     @PostMapping("/clear")
     public String clearCart(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.CART);
 
         cartService.clearAllItemsFromCart(user);
 
@@ -66,12 +74,11 @@ public class CartController {
     }
 
     @PostMapping ("/purchase")
-    public String purchase(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public String purchase(@RequestParam(value = "idempotencyKey", required = false) String idempotencyKey, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.CART);
 
-        Cart cart = user.getCart();
-
-        userService.purchaseCartItems(user);
+        // A repeated submission of the same cart form (double click, resend) doesn't buy again
+        idempotencyService.execute(user.getId(), idempotencyKey, () -> userService.purchaseCartItems(user));
 
         return "redirect:/cart";
     }
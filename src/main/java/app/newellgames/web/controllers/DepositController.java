@@ -1,8 +1,11 @@
 package app.newellgames.web.controllers;
 
+import app.newellgames.idempotency.service.IdempotencyService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.transaction.service.TransactionService;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
 import app.newellgames.utility.DtoMapper;
 import app.newellgames.web.dto.DepositRequest;
@@ -19,37 +22,43 @@ import java.util.UUID;
 @RequestMapping("/add-funds")
 public class DepositController {
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
-    public DepositController(UserService userService) {
+    public DepositController(UserService userService, IdempotencyService idempotencyService) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
     public ModelAndView deposit(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
         ModelAndView modelAndView = new ModelAndView("add-funds");
 
         modelAndView.addObject("user", user);
         modelAndView.addObject("depositRequest", DtoMapper.mapDepositToDepositRequest());
+        modelAndView.addObject("idempotencyKey", idempotencyService.newKey());
 
         return modelAndView;
     }
 
     @PostMapping
-    public ModelAndView topUp(@Valid DepositRequest depositRequest, BindingResult bindingResult, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+    public ModelAndView topUp(@Valid DepositRequest depositRequest, BindingResult bindingResult, @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.HEADER);
 
         if (bindingResult.hasErrors()) {
             ModelAndView modelAndView = new ModelAndView("add-funds");
             modelAndView.addObject("user", user);
+            // Nothing ran, so the corrected form can be sent with the same key
+            modelAndView.addObject("idempotencyKey", idempotencyKey);
             return modelAndView;
         }
 
-
-        userService.topUp(user, depositRequest);
+        // A repeated submission of the same form (double click, resend) doesn't deposit again
+        idempotencyService.execute(user.getId(), idempotencyKey, () -> userService.topUp(user, depositRequest));
         ModelAndView modelAndView = new ModelAndView("add-funds");
         modelAndView.addObject("user", user);
         modelAndView.addObject("depositRequest", DtoMapper.mapDepositToDepositRequest());
+        modelAndView.addObject("idempotencyKey", idempotencyService.newKey());
         modelAndView.addObject("success", true);
         return modelAndView;
     }
@@ -4,6 +4,7 @@ import app.newellgames.game.model.Game;
 import app.newellgames.game.service.GameService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.service.UserService;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -29,7 +30,7 @@ public class LibraryController {
     @GetMapping
     public ModelAndView getLibraryPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.LIBRARY);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("library");
@@ -3,11 +3,15 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.notification.client.dto.Notification;
 import app.newellgames.notification.client.dto.NotificationPreference;
+import app.newellgames.notification.client.dto.NotificationSummary;
 import app.newellgames.notification.service.NotificationService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +24,14 @@ import java.util.UUID;
 @RequestMapping("/notifications")
 public class NotificationController {
 
+    private static final int RECENT_NOTIFICATIONS = 5;
+
     private final UserService userService;
     private final NotificationService notificationService;
 
+    @Value("${notification-svc.failure-message.clear-history}")
+    private String notificationServiceFailureMessage;
+
     @Autowired
     public NotificationController(UserService userService, NotificationService notificationService) {
 
@@ -33,27 +42,29 @@ public class NotificationController {
     @GetMapping
     public ModelAndView getNotificationPage(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
 
-        NotificationPreference notificationPreference = notificationService.getNotificationPreference(user.getId());
-        List<Notification> notificationHistory = notificationService.getNotificationHistory(user.getId());
-        long succeededNotificationsNumber = notificationHistory.stream().filter(notification -> notification.getStatus().equals("SUCCEEDED")).count();
-        long failedNotificationsNumber = notificationHistory.stream().filter(notification -> notification.getStatus().equals("FAILED")).count();
-        notificationHistory = notificationHistory.stream().limit(5).toList();
+        // The page renders without the preference while notification-svc is down, errors here would redirect back to this page
+        NotificationPreference notificationPreference = notificationService.findNotificationPreference(user.getId()).orElse(null);
+        NotificationSummary notificationSummary = notificationService.getNotificationSummary(user.getId());
+        List<Notification> notificationHistory = notificationService.getRecentNotifications(user.getId(), 0, RECENT_NOTIFICATIONS);
 
         ModelAndView modelAndView = new ModelAndView("notifications");
         modelAndView.addObject("user", user);
         modelAndView.addObject("notificationPreference", notificationPreference);
-        modelAndView.addObject("succeededNotificationsNumber", succeededNotificationsNumber);
-        modelAndView.addObject("failedNotificationsNumber", failedNotificationsNumber);
+        modelAndView.addObject("succeededNotificationsNumber", notificationSummary.getSucceeded());
+        modelAndView.addObject("failedNotificationsNumber", notificationSummary.getFailed());
         modelAndView.addObject("notificationHistory", notificationHistory);
+        if (notificationPreference == null) {
+            modelAndView.addObject("notificationServiceFailureMessage", notificationServiceFailureMessage);
+        }
 
         return modelAndView;
     }
 
     @PutMapping("/user-preference")
     public String updateUserPreference(@RequestParam(name = "enabled") boolean enabled, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.HEADER);
         notificationService.updateNotificationPreference(authenticationMetadata.getUserId(), enabled, user);
 
         return "redirect:/notifications";
@@ -2,6 +2,7 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.service.UserService;
 import app.newellgames.utility.DtoMapper;
 import app.newellgames.web.dto.EditProfileRequest;
@@ -29,7 +30,7 @@ public class ProfileController {
 
     @GetMapping("/{id}")
     public ModelAndView getProfile(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(id);
+        User user = userService.getById(id, UserFetchProfile.HEADER);
 
         if (!authenticationMetadata.getUserId().equals(id)) {
             throw new AccessDeniedException("You are not allowed to view other users' reviews");
@@ -44,7 +45,7 @@ public class ProfileController {
 
     @GetMapping("/{id}/edit-profile")
     public ModelAndView getEditProfile(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(id);
+        User user = userService.getById(id, UserFetchProfile.HEADER);
 
         if (!authenticationMetadata.getUserId().equals(id)) {
             throw new AccessDeniedException("You are not allowed to view other users' reviews");
@@ -60,7 +61,7 @@ public class ProfileController {
 
     @PutMapping ("/{id}/edit-profile")
     public ModelAndView editProfile(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @Valid EditProfileRequest editProfileRequest, BindingResult bindingResult) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.HEADER);
 
         if (!authenticationMetadata.getUserId().equals(id)) {
             throw new AccessDeniedException("Nice try, but you are not allowed to do that!");
@@ -2,13 +2,18 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.game.model.Game;
 import app.newellgames.game.service.GameService;
+import app.newellgames.review.model.ReviewPage;
+import app.newellgames.review.model.ReviewType;
 import app.newellgames.review.service.ReviewService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
 import app.newellgames.utility.DtoMapper;
 import app.newellgames.web.dto.AddReviewRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -16,8 +21,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Controller
@@ -34,16 +41,25 @@ public class ReviewController {
     }
 
     @GetMapping ("/{id}")
-    public ModelAndView showReviewsForTheGame (@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+    public ModelAndView showReviewsForTheGame (@PathVariable UUID id,
+                                               @RequestParam(value = "type", required = false) ReviewType type,
+                                               @RequestParam(value = "afterCreatedOn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedOn,
+                                               @RequestParam(value = "afterId", required = false) UUID afterId,
+                                               @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
         Game game = gameService.getById(id);
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.HEADER);
         boolean userOwnsThisGame = userService.checkIfUserOwnsTheGame(user, game);
+        ReviewPage reviewPage = reviewService.getReviewPage(game.getId(), type, afterCreatedOn, afterId);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("reviews");
         modelAndView.addObject("user", user);
         modelAndView.addObject("game", game);
-        modelAndView.addObject("reviews", game.getReviews());
+        modelAndView.addObject("reviews", reviewPage.getReviews());
+        modelAndView.addObject("reviewPage", reviewPage);
+        modelAndView.addObject("isFirstPage", afterCreatedOn == null || afterId == null);
+        modelAndView.addObject("types", ReviewType.values());
+        modelAndView.addObject("selectedType", type);
         modelAndView.addObject("userOwnsThisGame", userOwnsThisGame);
 
         return modelAndView;
@@ -51,7 +67,7 @@ public class ReviewController {
 
     @GetMapping ("/{id}/add-review")
     public ModelAndView getAddReviewForm(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
         Game game = gameService.getById(id);
 
         ModelAndView modelAndView = new ModelAndView();
@@ -65,7 +81,7 @@ public class ReviewController {
 
     @GetMapping ("/my-reviews")
     public ModelAndView getMyReviewsPage (@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.REVIEWS);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("my-reviews");
@@ -77,7 +93,7 @@ public class ReviewController {
 
     @PostMapping("{id}/add-review")
     public String addReview (@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @Valid AddReviewRequest addReviewRequest, BindingResult bindingResult) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.REVIEWS);
         Game game = gameService.getById(id);
 
 
@@ -2,9 +2,16 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.cart.service.CartService;
 import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GameSort;
+import app.newellgames.game.model.Genre;
+import app.newellgames.game.model.ShopFilter;
+import app.newellgames.game.model.ShopPage;
 import app.newellgames.game.service.GameService;
+import app.newellgames.game.service.ShopService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -13,8 +20,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
-import java.util.List;
-import java.util.Set;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @Controller
@@ -24,12 +30,14 @@ public class ShopController {
     private final UserService userService;
     private final GameService gameService;
     private final CartService cartService;
+    private final ShopService shopService;
 
     @Autowired
-    public ShopController(UserService userService, GameService gameService, CartService cartService) {
+    public ShopController(UserService userService, GameService gameService, CartService cartService, ShopService shopService) {
         this.userService = userService;
         this.gameService = gameService;
         this.cartService = cartService;
+        this.shopService = shopService;
     }
 
 //    @GetMapping
@@ -47,25 +55,40 @@ public class ShopController {
 //    }
 
     @GetMapping
-    public ModelAndView searchGames(@RequestParam(value = "query", required = false) String query, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
-        List<Game> allGames;
-        Set<UUID> ownedGameIds = userService.getOwnedGameIds(user);
-        Set<Game> gamesAlreadyInCart = cartService.getGamesForUser(user.getCart());
-
-        if (query != null && !query.isBlank()) {
-            allGames = gameService.findGamesByTitle(query);
-        } else {
-            allGames = gameService.getAllGames();
-        }
+    public ModelAndView searchGames(@RequestParam(value = "query", required = false) String query,
+                                    @RequestParam(value = "genre", required = false) Genre genre,
+                                    @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+                                    @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+                                    @RequestParam(value = "sort", defaultValue = "TITLE") GameSort sort,
+                                    @RequestParam(value = "afterTitle", required = false) String afterTitle,
+                                    @RequestParam(value = "afterRating", required = false) Double afterRating,
+                                    @RequestParam(value = "afterId", required = false) UUID afterId,
+                                    @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
+        ShopFilter filter = ShopFilter.builder()
+                .query(query)
+                .genre(genre)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sort(sort)
+                .build();
+
+        // Games come with their owned / in cart flags, so the library and the cart are not loaded here
+        ShopPage shopPage = shopService.getShopPage(user.getId(), filter, afterTitle, afterRating, afterId);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("shop");
         modelAndView.addObject("user", user);
-        modelAndView.addObject("allGames", allGames);
+        modelAndView.addObject("allGames", shopPage.getGames());
+        modelAndView.addObject("gamePage", shopPage.getPage());
+        modelAndView.addObject("isFirstPage", afterId == null || (sort == GameSort.RATING ? afterRating == null : afterTitle == null));
         modelAndView.addObject("query", query);
-        modelAndView.addObject("ownedGameIds", ownedGameIds);
-        modelAndView.addObject("gamesAlreadyInCart", gamesAlreadyInCart);
+        modelAndView.addObject("genres", Genre.values());
+        modelAndView.addObject("selectedGenre", genre);
+        modelAndView.addObject("minPrice", minPrice);
+        modelAndView.addObject("maxPrice", maxPrice);
+        modelAndView.addObject("sorts", GameSort.values());
+        modelAndView.addObject("selectedSort", sort);
 
         return modelAndView; // the Thymeleaf view
     }
@@ -74,7 +97,7 @@ public class ShopController {
 
     @PostMapping("/add-to-cart/{id}")
     public String addGameToCart (@PathVariable UUID id, @AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
-        User user = userService.getById(authenticationMetadata.getUserId());
+        User user = userService.getById(authenticationMetadata.getUserId(), UserFetchProfile.HEADER);
 
         Game game = gameService.getById(id);
 
@@ -2,9 +2,14 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionFilter;
+import app.newellgames.transaction.model.TransactionPage;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.service.TransactionService;
-import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -13,7 +18,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Controller
 @RequestMapping("/transactions")
@@ -29,9 +37,9 @@ public class TransactionController {
     @GetMapping("/my-transactions")
     public ModelAndView getMyTransactions(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
 
-        List<Transaction> myTransactions = userService.getTransactions(user);
+        List<Transaction> myTransactions = transactionService.getAllTransactionsByUserId(user.getId());
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("transactions");
@@ -43,21 +51,34 @@ public class TransactionController {
 
     @GetMapping ("/admin/all-transactions")
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView getAllTransactions(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @RequestParam(value = "query", required = false) String query) {
-        User user = userService.getById(authenticationMetadata.getUserId());
-        List<Transaction> allTransactions;
+    public ModelAndView getAllTransactions(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata,
+                                           @RequestParam(value = "owner", required = false) String owner,
+                                           @RequestParam(value = "status", required = false) TransactionStatus status,
+                                           @RequestParam(value = "type", required = false) TransactionType type,
+                                           @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(value = "afterCreatedOn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedOn,
+                                           @RequestParam(value = "afterId", required = false) UUID afterId) {
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
 
-        if(query != null && !query.isBlank()) {
-            allTransactions = transactionService.getTransactionByOwnerIdOrUsername(query);
-        } else {
-            allTransactions = transactionService.getAllTransactions();
-        }
+        TransactionFilter filter = TransactionFilter.builder()
+                .owner(owner)
+                .status(status)
+                .type(type)
+                .from(from)
+                .to(to)
+                .build();
+        TransactionPage transactionPage = transactionService.getLedgerPage(filter, afterCreatedOn, afterId);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.setViewName("all-transactions");
         modelAndView.addObject("user", user);
-        modelAndView.addObject("allTransactions", allTransactions);
-        modelAndView.addObject("query", query);
+        modelAndView.addObject("allTransactions", transactionPage.getTransactions());
+        modelAndView.addObject("transactionPage", transactionPage);
+        modelAndView.addObject("isFirstPage", afterCreatedOn == null || afterId == null);
+        modelAndView.addObject("filter", filter);
+        modelAndView.addObject("statuses", TransactionStatus.values());
+        modelAndView.addObject("types", TransactionType.values());
 
         return modelAndView;
     }
@@ -2,7 +2,10 @@ package app.newellgames.web.controllers;
 
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.model.UserSummary;
 import app.newellgames.user.service.UserService;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -25,16 +28,20 @@ public class UserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ModelAndView getAllUsers(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @RequestParam(value = "query", required = false) String query) {
+    public ModelAndView getAllUsers(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @RequestParam(value = "query", required = false) String query,
+                                    @RequestParam(value = "page", defaultValue = "0") int page) {
 
-        User user = userService.getById(authenticationMetadata.getUserId());
+        UserSummary user = userService.getSummary(authenticationMetadata.getUserId());
 
-        List<User> users;
+        List<UserSummary> users;
+        boolean hasNext = false;
 
         if(query != null && !query.isBlank()) {
             users = userService.getUserByUsernameOrIdOrEmail(query);
         } else {
-            users = userService.getAllUsers();
+            Slice<UserSummary> usersPage = userService.getUsersPage(Math.max(page, 0));
+            users = usersPage.getContent();
+            hasNext = usersPage.hasNext();
         }
 
         ModelAndView modelAndView = new ModelAndView();
@@ -42,6 +49,8 @@ public class UserController {
         modelAndView.addObject("user", user);
         modelAndView.addObject("users", users);
         modelAndView.addObject("query", query);
+        modelAndView.addObject("page", Math.max(page, 0));
+        modelAndView.addObject("hasNext", hasNext);
 
         return modelAndView;
     }
@@ -50,7 +59,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public String switchRole(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata,
                              @RequestParam(required = false) String isAdmin, @PathVariable UUID id) {
-        User user = userService.getById(id);
+        User user = userService.getById(id, UserFetchProfile.HEADER);
 
         if ("on".equals(isAdmin)) {
             userService.switchUserRoleToAdmin(user);
@@ -65,7 +74,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public String switchStatus(@AuthenticationPrincipal AuthenticationMetadata authenticationMetadata, @RequestParam(required = false) String isActive, @PathVariable UUID id)
     {
-        User user = userService.getById(id);
+        User user = userService.getById(id, UserFetchProfile.HEADER);
 
         if("on".equals(isActive)) {
             userService.switchUserStatusToActive(user);
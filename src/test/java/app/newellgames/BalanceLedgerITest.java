@@ -0,0 +1,124 @@
+package app.newellgames;
+
+import app.newellgames.balance.model.BalanceReconciliation;
+import app.newellgames.balance.service.BalanceService;
+import app.newellgames.exception.FailedTopUpException;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.repository.TransactionRepository;
+import app.newellgames.user.model.User;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.DepositRequest;
+import app.newellgames.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class BalanceLedgerITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void parallelCredits_AreNotLost() throws Exception {
+
+        User user = register("hotAccount");
+
+        runInParallel(100, () -> balanceService.credit(user.getId(), BigDecimal.ONE, null));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(balanceService.getBalance(user.getId())));
+        assertTrue(balanceService.reconcile(user.getId()).isConsistent());
+    }
+
+    @Test
+    void parallelDebits_NeverOverdrawTheAccount() throws Exception {
+
+        User user = register("hotAccount");
+        balanceService.credit(user.getId(), BigDecimal.valueOf(50), null);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        runInParallel(100, () -> {
+            if (balanceService.debit(user.getId(), BigDecimal.ONE, null)) {
+                succeeded.incrementAndGet();
+            }
+        });
+
+        assertEquals(50, succeeded.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceService.getBalance(user.getId())));
+        assertTrue(balanceService.reconcile(user.getId()).isConsistent());
+    }
+
+    @Test
+    void topUp_WritesATransactionThatReconcilesWithTheLedger() {
+
+        User user = register("depositor");
+
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.TEN).build());
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.ONE).build());
+
+        BalanceReconciliation reconciliation = balanceService.reconcile(user.getId());
+        assertEquals(0, BigDecimal.valueOf(11).compareTo(reconciliation.getBalance()));
+        assertEquals(0, reconciliation.getUnmatchedTransactions());
+        assertTrue(reconciliation.isConsistent());
+    }
+
+    @Test
+    void failedTopUp_KeepsTheFailedTransaction() {
+
+        User user = register("inactiveDepositor");
+        user.setActive(false);
+
+        assertThrows(FailedTopUpException.class, () -> userService.topUp(user, DepositRequest.builder().amount(BigDecimal.TEN).build()));
+
+        assertTrue(transactionRepository.findAll().stream()
+                .anyMatch(transaction -> transaction.getOwner().getId().equals(user.getId()) && transaction.getStatus() == TransactionStatus.FAILED));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceService.getBalance(user.getId())));
+    }
+
+    private void runInParallel(int tasks, Runnable task) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private User register(String username) {
+
+        return userService.register(RegisterRequest.builder()
+                .username(username)
+                .password("password")
+                .build());
+    }
+}
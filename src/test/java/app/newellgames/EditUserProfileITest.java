@@ -56,7 +56,6 @@ public class EditUserProfileITest {
 
         when(notificationService.getNotificationPreference(any())).thenReturn(new NotificationPreference());
         doNothing().when(notificationService).saveNotificationPreference(UUID.randomUUID(), false, userToEdit.getEmail());
-        doNothing().when(notificationService).sendNotification(any(), any(), any());
 
         userService.editProfile(userToEdit, editProfileRequest);
         User user = userRepository.findById(userToEdit.getId()).orElseThrow();
@@ -106,7 +105,6 @@ public class EditUserProfileITest {
 
         when(notificationService.getNotificationPreference(any())).thenReturn(new NotificationPreference());
         doNothing().when(notificationService).saveNotificationPreference(UUID.randomUUID(), false, userToEdit.getEmail());
-        doNothing().when(notificationService).sendNotification(any(), any(), any());
 
         userService.editProfile(userWithSameEmail, editProfileRequestForUserWithSameEmail);
 
@@ -142,7 +140,6 @@ public class EditUserProfileITest {
 
         when(notificationService.getNotificationPreference(any())).thenReturn(new NotificationPreference());
         doNothing().when(notificationService).saveNotificationPreference(UUID.randomUUID(), false, userToEdit.getEmail());
-        doNothing().when(notificationService).sendNotification(any(), any(), any());
 
         userToEdit = userRepository.findById(userToEdit.getId()).orElseThrow();
 
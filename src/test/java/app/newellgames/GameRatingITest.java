@@ -0,0 +1,126 @@
+package app.newellgames;
+
+import app.newellgames.bootstrap.RatingScoreBackfill;
+import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.game.service.GameService;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.review.model.Review;
+import app.newellgames.review.model.ReviewType;
+import app.newellgames.utility.RatingUtility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class GameRatingITest {
+
+    @Autowired
+    private GameService gameService;
+
+    @MockitoSpyBean
+    private GameRepository gameRepository;
+
+    @Autowired
+    private RatingScoreBackfill ratingScoreBackfill;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void parallelReviews_AreAllCountedAndTheScoreMatchesTheCounters() throws Exception {
+
+        Game game = gameRepository.save(aRandomGame());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                ReviewType type = i % 3 == 0 ? ReviewType.NEGATIVE : ReviewType.POSITIVE;
+                futures.add(executor.submit(() -> gameService.addGameReview(Review.builder().type(type).build(), game)));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Game reloaded = gameService.getById(game.getId());
+        // TestBuilder games start with one positive and one negative review
+        assertEquals(41, reloaded.getPositiveReviews());
+        assertEquals(21, reloaded.getNegativeReviews());
+        assertEquals(RatingUtility.wilsonLowerBound(41, 21), reloaded.getRatingScore(), 1e-9);
+    }
+
+    @Test
+    void shopSortedByRating_ListsBetterRatedGamesFirst() {
+
+        Game loved = gameRepository.save(aRandomGame());
+        Game hated = gameRepository.save(aRandomGame());
+        for (int i = 0; i < 5; i++) {
+            gameService.addGameReview(Review.builder().type(ReviewType.POSITIVE).build(), loved);
+            gameService.addGameReview(Review.builder().type(ReviewType.NEGATIVE).build(), hated);
+        }
+
+        GamePage page = gameService.getGamesPageByRating(null, null);
+
+        List<GameSummary> games = page.getGames();
+        assertEquals(loved.getId(), games.get(0).getId());
+        assertTrue(games.stream().map(GameSummary::getId).toList().indexOf(hated.getId()) > 0);
+        for (int i = 1; i < games.size(); i++) {
+            assertTrue(games.get(i - 1).getRatingScore() >= games.get(i).getRatingScore());
+        }
+    }
+
+    @Test
+    void newReview_UpdatesTheCatalogWithoutRebuildingIt() {
+
+        Game game = gameRepository.save(aRandomGame());
+        assertEquals(0.0, gameService.searchGamesByRating(game.getTitle(), null, null, null, null, null).getGames().get(0).getRatingScore());
+
+        gameService.addGameReview(Review.builder().type(ReviewType.POSITIVE).build(), game);
+
+        GameSummary reviewed = gameService.searchGamesByRating(game.getTitle(), null, null, null, null, null).getGames().get(0);
+        assertEquals(game.getPositiveReviews(), reviewed.getPositiveReviews());
+        assertEquals(RatingUtility.wilsonLowerBound(game.getPositiveReviews(), game.getNegativeReviews()), reviewed.getRatingScore(), 1e-9);
+        verify(gameRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void backfill_ComputesTheScoreOfGamesReviewedBeforeTheColumnExisted() {
+
+        Game reviewed = aRandomGame();
+        reviewed.setPositiveReviews(5);
+        reviewed.setNegativeReviews(1);
+        reviewed = gameRepository.save(reviewed);
+        Game notReviewed = aRandomGame();
+        notReviewed.setPositiveReviews(0);
+        notReviewed.setNegativeReviews(0);
+        notReviewed = gameRepository.save(notReviewed);
+
+        ratingScoreBackfill.run();
+
+        assertEquals(RatingUtility.wilsonLowerBound(5, 1), gameService.getById(reviewed.getId()).getRatingScore(), 1e-9);
+        assertEquals(0.0, gameService.getById(notReviewed.getId()).getRatingScore());
+        assertTrue(gameRepository.findWithoutRatingScore(PageRequest.ofSize(10)).isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+package app.newellgames;
+
+import app.newellgames.balance.service.BalanceService;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.service.GameService;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.repository.UserRepository;
+import app.newellgames.user.service.OwnershipService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles({"test", "load-test"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-test-itest;MODE=MYSQL",
+        "load-test.seed.users=50",
+        "load-test.seed.games=30",
+        "load-test.seed.games-per-user=5",
+        "load-test.seed.reviews-per-user=2",
+        "load-test.seed.batch-size=7",
+        "load-test.notification-stub.port=0"
+})
+public class LoadTestDataSeederITest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OwnershipService ownershipService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void loadTestProfile_SeedsUsersGamesOwnershipAndReviewsThatTheAppCanRead() {
+
+        // Rows written with batched JDBC inserts
+        assertEquals(50, count("SELECT COUNT(*) FROM users WHERE username LIKE 'loaduser%'"));
+        assertEquals(250, count("SELECT COUNT(*) FROM users_games"));
+        assertEquals(100, count("SELECT COUNT(*) FROM review"));
+        assertEquals(100, count("SELECT SUM(positive_reviews + negative_reviews) FROM games WHERE title LIKE 'Load Test Game%'"));
+
+        // and read back through the JPA mappings
+        User user = userRepository.findByUsername("loaduser7").orElseThrow();
+        assertTrue(passwordEncoder.matches("password", user.getPassword()));
+        assertNotNull(user.getCart());
+        assertEquals(5, ownershipService.getOwnedGameIds(user.getId()).size());
+        assertTrue(balanceService.reconcile(user.getId()).isConsistent());
+
+        GamePage shop = gameService.searchGames("load test game 00002", null, null, null, null, null);
+        assertEquals(10, shop.getGames().size());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,103 @@
+package app.newellgames;
+
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.DepositRequest;
+import app.newellgames.web.dto.RegisterRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = {
+        "notification-events.outbox.relay-enabled=true",
+        "notification-events.outbox.relay-delay=100ms",
+        "notification-events.partitions=3",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 3, topics = "notification-events")
+public class NotificationEventsITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private OutboxNotificationRepository outboxNotificationRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenUserDepositsTwice_thenDepositEventsAreRelayedFromTheOutboxInOrderKeyedByTheUserId() throws Exception {
+
+        User user = userService.register(RegisterRequest.builder().username("eventsUser").password("password").build());
+
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.valueOf(5)).build());
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.valueOf(7)).build());
+
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = aConsumer()) {
+            embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "notification-events");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (records.size() < 2 && System.currentTimeMillis() < deadline) {
+                KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500)).forEach(records::add);
+            }
+        }
+
+        assertEquals(2, records.size());
+        assertTrue(records.stream().allMatch(record -> record.key().equals(user.getId().toString())));
+        assertEquals(1, records.stream().map(ConsumerRecord::partition).distinct().count());
+
+        JsonNode first = objectMapper.readTree(records.get(0).value());
+        JsonNode second = objectMapper.readTree(records.get(1).value());
+        assertEquals(NotificationEventType.DEPOSIT_COMPLETED.name(), first.get("type").asText());
+        assertEquals("5", first.get("attributes").get("amount").asText());
+        assertEquals("7", second.get("attributes").get("amount").asText());
+        assertEquals("true", second.get("attributes").get("successful").asText());
+        assertEquals(user.getId().toString(), first.get("userId").asText());
+
+        // Acked events are removed from the outbox
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxNotificationRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, outboxNotificationRepository.count());
+    }
+
+    private Consumer<String, String> aConsumer() {
+
+        Map<String, Object> properties = KafkaTestUtils.consumerProps("events-test", "false", embeddedKafkaBroker);
+        properties.put("auto.offset.reset", "earliest");
+
+        return new DefaultKafkaConsumerFactory<>(properties, new StringDeserializer(), new StringDeserializer()).createConsumer();
+    }
+}
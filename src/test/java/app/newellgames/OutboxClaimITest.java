@@ -0,0 +1,115 @@
+package app.newellgames;
+
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.model.OutboxNotification;
+import app.newellgames.notification.model.OutboxStatus;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import app.newellgames.notification.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class OutboxClaimITest {
+
+    @Autowired
+    private OutboxNotificationRepository outboxNotificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @AfterEach
+    void tearDown() {
+        outboxNotificationRepository.deleteAll();
+    }
+
+    @Test
+    void whenClaiming_thenOnlyTheOldestEventOfEveryUserIsClaimed() {
+
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        UUID userId = UUID.randomUUID();
+        OutboxNotification first = outboxNotificationRepository.save(anOutboxNotification(userId, OutboxStatus.PENDING, now.minusMinutes(3), now.minusMinutes(3)));
+        outboxNotificationRepository.save(anOutboxNotification(userId, OutboxStatus.PENDING, now.minusMinutes(2), now.minusMinutes(2)));
+
+        // an earlier event that gave up, one that is leased by a relay and one that waits for its backoff hold back the later ones
+        UUID failedUserId = UUID.randomUUID();
+        outboxNotificationRepository.save(anOutboxNotification(failedUserId, OutboxStatus.FAILED, now.minusMinutes(3), now.minusMinutes(3)));
+        outboxNotificationRepository.save(anOutboxNotification(failedUserId, OutboxStatus.PENDING, now.minusMinutes(2), now.minusMinutes(2)));
+        UUID leasedUserId = UUID.randomUUID();
+        outboxNotificationRepository.save(anOutboxNotification(leasedUserId, OutboxStatus.PENDING, now.minusMinutes(3), now.plusMinutes(1)));
+        outboxNotificationRepository.save(anOutboxNotification(leasedUserId, OutboxStatus.PENDING, now.minusMinutes(2), now.minusMinutes(2)));
+
+        // When
+        List<OutboxNotification> claimed = new TransactionTemplate(transactionManager).execute(status -> outboxNotificationRepository.lockDuePendingNotifications(now, 10));
+
+        // Then
+        assertThat(claimed).extracting(OutboxNotification::getId).containsExactly(first.getId());
+    }
+
+    @Test
+    void givenOldestEventLockedByAnotherInstance_whenClaiming_thenTheUsersLaterEventIsNotClaimed() throws Exception {
+
+        // Given - another instance holds the row lock of its claim
+        LocalDateTime now = LocalDateTime.now();
+        UUID userId = UUID.randomUUID();
+        outboxNotificationRepository.save(anOutboxNotification(userId, OutboxStatus.PENDING, now.minusMinutes(3), now.minusMinutes(3)));
+        outboxNotificationRepository.save(anOutboxNotification(userId, OutboxStatus.PENDING, now.minusMinutes(2), now.minusMinutes(2)));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> otherInstance = CompletableFuture.supplyAsync(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            int claimed = outboxNotificationRepository.lockDuePendingNotifications(now, 10).size();
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return claimed;
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // When
+        List<OutboxNotification> claimed = new TransactionTemplate(transactionManager).execute(status -> outboxNotificationRepository.lockDuePendingNotifications(now, 10));
+        release.countDown();
+
+        // Then
+        assertThat(claimed).isEmpty();
+        assertEquals(1, otherInstance.get(10, TimeUnit.SECONDS));
+    }
+
+    private OutboxNotification anOutboxNotification(UUID userId, OutboxStatus status, LocalDateTime createdOn, LocalDateTime nextAttemptOn) {
+
+        return OutboxNotification.builder()
+                .userId(userId)
+                .eventType(NotificationEventType.DEPOSIT_COMPLETED)
+                .payload("{}")
+                .status(status)
+                .attempts(0)
+                .createdOn(createdOn)
+                .nextAttemptOn(nextAttemptOn)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package app.newellgames;
+
+import app.newellgames.balance.service.BalanceService;
+import app.newellgames.cart.model.CartItem;
+import app.newellgames.cart.repository.CartItemRepository;
+import app.newellgames.game.model.Game;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.model.OutboxNotification;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.review.model.ReviewType;
+import app.newellgames.review.service.ReviewService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.AddReviewRequest;
+import app.newellgames.web.dto.RegisterRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.MySQLDialect;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Purchase and review events are well over 255 bytes of JSON, the outbox has to store them whole
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class OutboxPayloadITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private OutboxNotificationRepository outboxNotificationRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @Transactional
+    void purchaseOfManyGames_IsWrittenToTheOutboxWithEveryTitle() throws Exception {
+
+        User user = userService.register(RegisterRequest.builder().username("outboxBuyer").password("password").build());
+
+        List<String> titles = new ArrayList<>();
+        user.getCart().setItems(new ArrayList<>());
+        for (int i = 0; i < 100; i++) {
+            Game game = aRandomGame();
+            game.setTitle("A Considerably Long Game Title, Episode %03d: The Director's Cut".formatted(i));
+            game = gameRepository.save(game);
+            titles.add(game.getTitle());
+            user.getCart().getItems().add(cartItemRepository.save(CartItem.builder().game(game).price(BigDecimal.ONE).cart(user.getCart()).build()));
+        }
+        balanceService.credit(user.getId(), BigDecimal.valueOf(100), null);
+        user.setBalance(BigDecimal.valueOf(100));
+        user.setMyGames(new ArrayList<>());
+
+        userService.purchaseCartItems(user);
+
+        OutboxNotification event = theOnlyEvent(NotificationEventType.PURCHASE_COMPLETED);
+        assertTrue(event.getPayload().length() > 6000);
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        assertEquals(titles, List.of(payload.get("attributes").get("gameTitles").asText().split("\n")));
+    }
+
+    @Test
+    @Transactional
+    void reviewWithALongDescription_IsWrittenToTheOutboxWhole() throws Exception {
+
+        User user = userService.register(RegisterRequest.builder().username("outboxReviewer").password("password").build());
+        user.setMyReviews(new ArrayList<>());
+        Game game = aRandomGame();
+        game.setTitle("The Longest Journey Through An Unreasonably Named Expansion Pack");
+        game = gameRepository.save(game);
+        String description = "Great game, ".repeat(21) + "abc";
+
+        reviewService.addReview(user, game, AddReviewRequest.builder()
+                .title("Loved every minute")
+                .description(description)
+                .type(ReviewType.POSITIVE)
+                .build());
+
+        OutboxNotification event = theOnlyEvent(NotificationEventType.REVIEW_POSTED);
+        assertTrue(event.getPayload().length() > 400);
+        JsonNode attributes = objectMapper.readTree(event.getPayload()).get("attributes");
+        assertEquals(255, attributes.get("description").asText().length());
+        assertEquals(description, attributes.get("description").asText());
+        assertEquals(game.getTitle(), attributes.get("gameTitle").asText());
+    }
+
+    // H2 doesn't enforce a length on MySQL's text types, so the column is checked against the DDL Hibernate generates for MySQL
+    @Test
+    void payloadColumn_IsLongTextOnMySql() {
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", MySQLDialect.class.getName())
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .build();
+        try {
+            Metadata metadata = new MetadataSources(registry).addAnnotatedClass(OutboxNotification.class).buildMetadata();
+            String sqlType = metadata.getEntityBinding(OutboxNotification.class.getName()).getTable()
+                    .getColumn(new org.hibernate.mapping.Column("payload")).getSqlType(metadata);
+
+            assertEquals("longtext", sqlType);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    private OutboxNotification theOnlyEvent(NotificationEventType type) {
+
+        List<OutboxNotification> events = outboxNotificationRepository.findAll().stream()
+                .filter(event -> event.getEventType() == type)
+                .toList();
+        assertEquals(1, events.size());
+        return events.get(0);
+    }
+}
@@ -0,0 +1,151 @@
+package app.newellgames;
+
+import app.newellgames.balance.service.BalanceService;
+import app.newellgames.cart.service.CartService;
+import app.newellgames.game.model.Game;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
+import app.newellgames.user.repository.UserRepository;
+import app.newellgames.user.service.OwnershipService;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class OwnershipITest {
+
+    @Autowired
+    private OwnershipService ownershipService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void ownedGameIds_AreCachedAndEvictedWhenAPurchaseCommits() {
+
+        User user = userService.register(RegisterRequest.builder().username("buyer").password("password").build());
+        Game game = gameRepository.save(aRandomGame());
+        balanceService.credit(user.getId(), BigDecimal.valueOf(100), null);
+        cartService.addGameToCart(game, userService.getById(user.getId(), UserFetchProfile.CART));
+
+        assertFalse(ownershipService.ownsGame(user.getId(), game.getId()));
+        assertTrue(ownershipService.getOwnedGameIds(user.getId()).isEmpty());
+        assertNotNull(cacheManager.getCache("ownedGameIds").get(user.getId()));
+
+        userService.purchaseCartItems(userService.getById(user.getId(), UserFetchProfile.CART));
+
+        assertNull(cacheManager.getCache("ownedGameIds").get(user.getId()));
+        assertTrue(ownershipService.ownsGame(user.getId(), game.getId()));
+        assertTrue(ownershipService.getOwnedGameIds(user.getId()).contains(game.getId()));
+        assertTrue(ownershipService.ownsGame(user.getId(), game.getId()));
+        assertFalse(ownershipService.ownsGame(user.getId(), gameRepository.save(aRandomGame()).getId()));
+    }
+
+    @Test
+    void ownedGameIds_EvictedWhileLoading_AreNotCachedAfterTheEviction() throws Exception {
+
+        // Given - the library is being loaded when the purchase commits and evicts it
+        UUID userId = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findOwnedGameIds(userId)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("ownedGameIds");
+        caffeineCacheManager.setAsyncCacheMode(true);
+        OwnershipService service = new OwnershipService(userRepository, caffeineCacheManager);
+        CompletableFuture<Set<UUID>> load = CompletableFuture.supplyAsync(() -> service.getOwnedGameIds(userId));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Void> eviction = CompletableFuture.runAsync(() -> service.evictAfterCommit(userId));
+        release.countDown();
+        load.get(10, TimeUnit.SECONDS);
+        eviction.get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertNull(caffeineCacheManager.getCache("ownedGameIds").get(userId));
+    }
+
+    @Test
+    void ownedGameIds_AreLoadedOnceOnTheFirstCallersThread_AndConcurrentCallersWaitForThatLoad() throws Exception {
+
+        // Given - the first caller's query is slow, a second caller asks meanwhile
+        UUID userId = UUID.randomUUID();
+        UUID gameId = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> loadingThreads = new CopyOnWriteArrayList<>();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findOwnedGameIds(userId)).thenAnswer(invocation -> {
+            loadingThreads.add(Thread.currentThread());
+            loading.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(gameId);
+        });
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("ownedGameIds");
+        caffeineCacheManager.setAsyncCacheMode(true);
+        OwnershipService service = new OwnershipService(userRepository, caffeineCacheManager);
+        CompletableFuture<Thread> firstCallerThread = new CompletableFuture<>();
+        CompletableFuture<Set<UUID>> first = CompletableFuture.supplyAsync(() -> {
+            firstCallerThread.complete(Thread.currentThread());
+            return service.getOwnedGameIds(userId);
+        });
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Set<UUID>> second = CompletableFuture.supplyAsync(() -> service.getOwnedGameIds(userId));
+        release.countDown();
+
+        // Then
+        assertEquals(Set.of(gameId), first.get(10, TimeUnit.SECONDS));
+        assertEquals(Set.of(gameId), second.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of(firstCallerThread.get()), loadingThreads);
+        verify(userRepository, times(1)).findOwnedGameIds(userId);
+    }
+}
@@ -1,11 +1,15 @@
 package app.newellgames;
 
+import app.newellgames.balance.service.BalanceService;
 import app.newellgames.cart.model.CartItem;
 import app.newellgames.cart.repository.CartItemRepository;
 import app.newellgames.cart.repository.CartRepository;
 import app.newellgames.cart.service.CartService;
+import app.newellgames.exception.FailedPurchaseException;
 import app.newellgames.game.model.Game;
 import app.newellgames.game.repository.GameRepository;
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.service.NotificationEventPublisher;
 import app.newellgames.notification.service.NotificationService;
 import app.newellgames.transaction.model.Transaction;
 import app.newellgames.transaction.model.TransactionStatus;
@@ -13,6 +17,7 @@ import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.repository.TransactionRepository;
 import app.newellgames.transaction.service.TransactionService;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.repository.UserRepository;
 import app.newellgames.user.service.UserService;
 import app.newellgames.web.dto.RegisterRequest;
@@ -51,9 +56,24 @@ public class PurchaseCartItemsITest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartService cartService;
+
     @MockitoBean
     private NotificationService notificationService;
 
+    @MockitoBean
+    private NotificationEventPublisher notificationEventPublisher;
+
     @Test
     @Transactional
     void purchaseCartItems_happyPath() {
@@ -74,12 +94,12 @@ public class PurchaseCartItemsITest {
                 .build();
 
         user.getCart().setItems(new ArrayList<>());
-        user.getCart().getItems().add(cartItem);
+        user.getCart().getItems().add(cartItemRepository.save(cartItem));
 
         user.setBalance(BigDecimal.valueOf(101));
+        balanceService.credit(user.getId(), BigDecimal.valueOf(101), null);
         user.setMyGames(new ArrayList<>());
 
-        doNothing().when(notificationService).sendNotification(any(), any(), any());
 
         userService.purchaseCartItems(user);
 
@@ -87,13 +107,18 @@ public class PurchaseCartItemsITest {
         assertTrue(user.getMyGames().contains(game));
         assertTrue(user.getCart().getItems().isEmpty());
 
-        Optional <Transaction> tx = transactionRepository.findByOwnerUsernameContainingIgnoreCaseOrderByCreatedOnDesc(user.getUsername()).stream().findFirst();
+        // checkout runs bulk statements and clears the persistence context, so these are read back from the DB
+        assertEquals(0, BigDecimal.valueOf(91).compareTo(balanceService.getBalance(user.getId())));
+        assertTrue(userService.getById(user.getId(), UserFetchProfile.LIBRARY).getMyGames().stream().anyMatch(owned -> owned.getId().equals(game.getId())));
+        assertTrue(cartItemRepository.findAll().stream().noneMatch(item -> item.getCart().getId().equals(user.getCart().getId())));
+
+        Optional <Transaction> tx = transactionRepository.findByOwnerIdOrderByCreatedOnDesc(user.getId()).stream().findFirst();
         assertTrue(tx.isPresent());
-        assertEquals(BigDecimal.valueOf(10), tx.get().getAmount());
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(tx.get().getAmount()));
         assertSame(TransactionStatus.SUCCESSFUL, tx.get().getStatus());
         assertSame(TransactionType.PURCHASE, tx.get().getType());
 
-        verify(notificationService, times(1)).sendNotification(any(), any(), any());
+        verify(notificationEventPublisher, times(1)).publish(argThat(event -> event.getType() == NotificationEventType.PURCHASE_COMPLETED));
     }
 
     @Test
@@ -115,16 +140,16 @@ public class PurchaseCartItemsITest {
                 .build();
 
         user.getCart().setItems(new ArrayList<>());
-        user.getCart().getItems().add(cartItem);
+        user.getCart().getItems().add(cartItemRepository.save(cartItem));
 
         user.setBalance(BigDecimal.valueOf(1));
+        balanceService.credit(user.getId(), BigDecimal.valueOf(1), null);
         user.setMyGames(new ArrayList<>());
 
-        doNothing().when(notificationService).sendNotification(any(), any(), any());
 
         userService.purchaseCartItems(user);
 
-        Optional <Transaction> tx = transactionRepository.findByOwnerUsernameContainingIgnoreCaseOrderByCreatedOnDesc(user.getUsername()).stream().findFirst();
+        Optional <Transaction> tx = transactionRepository.findByOwnerIdOrderByCreatedOnDesc(user.getId()).stream().findFirst();
         assertTrue(tx.isPresent());
         assertEquals(BigDecimal.valueOf(10), tx.get().getAmount());
         assertSame(TransactionStatus.FAILED, tx.get().getStatus());
@@ -134,6 +159,89 @@ public class PurchaseCartItemsITest {
         assertFalse(user.getMyGames().contains(game));
         assertFalse(user.getCart().getItems().isEmpty());
 
-        verify(notificationService, times(0)).sendNotification(any(), any(), any());
+        verify(notificationEventPublisher, times(0)).publish(any());
+    }
+
+    @Test
+    @Transactional
+    void purchaseCartItems_SameGameTwiceInCart_IsAddedToTheLibraryOnce() {
+
+        User user = userService.register(RegisterRequest.builder()
+                .username("testuser")
+                .password("password")
+                .build());
+        Game game = gameRepository.save(aRandomGame());
+
+        user.getCart().setItems(new ArrayList<>());
+        for (int i = 0; i < 2; i++) {
+            user.getCart().getItems().add(cartItemRepository.save(CartItem.builder()
+                    .game(game)
+                    .price(BigDecimal.TEN)
+                    .cart(user.getCart())
+                    .build()));
+        }
+
+        balanceService.credit(user.getId(), BigDecimal.valueOf(20), null);
+        user.setBalance(BigDecimal.valueOf(20));
+        user.setMyGames(new ArrayList<>());
+
+        userService.purchaseCartItems(user);
+
+        assertEquals(List.of(game.getId()), userRepository.findOwnedGameIds(user.getId()));
+    }
+
+    @Test
+    void purchaseCartItems_EmptyCart_IsRejectedWithoutATransactionOrEvent() {
+
+        User user = userService.register(RegisterRequest.builder().username("testuser").password("password").build());
+
+        assertThrows(FailedPurchaseException.class, () -> userService.purchaseCartItems(userService.getById(user.getId(), UserFetchProfile.CART)));
+
+        assertTrue(transactionRepository.findByOwnerIdOrderByCreatedOnDesc(user.getId()).isEmpty());
+        verify(notificationEventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void purchaseCartItems_ItemAddedAfterTheCartWasLoaded_IsNeitherGrantedNorRemoved() {
+
+        User registered = userService.register(RegisterRequest.builder().username("testuser").password("password").build());
+        Game priced = gameRepository.save(aRandomGame());
+        Game addedMeanwhile = gameRepository.save(aRandomGame());
+        balanceService.credit(registered.getId(), BigDecimal.valueOf(150), null);
+        cartService.addGameToCart(priced, userService.getById(registered.getId(), UserFetchProfile.CART));
+
+        User user = userService.getById(registered.getId(), UserFetchProfile.CART);
+        // Another request adds a game after this one has loaded the cart
+        cartService.addGameToCart(addedMeanwhile, user);
+
+        userService.purchaseCartItems(user);
+
+        assertEquals(List.of(priced.getId()), userRepository.findOwnedGameIds(user.getId()));
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(balanceService.getBalance(user.getId())));
+        assertEquals(List.of(addedMeanwhile.getId()), cartItemRepository.findAll().stream().map(item -> item.getGame().getId()).toList());
+    }
+
+    @Test
+    void purchaseCartItems_ItemRemovedAfterTheCartWasLoaded_RollsTheWholePurchaseBack() {
+
+        User registered = userService.register(RegisterRequest.builder().username("testuser").password("password").build());
+        Game kept = gameRepository.save(aRandomGame());
+        Game removedMeanwhile = gameRepository.save(aRandomGame());
+        balanceService.credit(registered.getId(), BigDecimal.valueOf(500), null);
+        cartService.addGameToCart(kept, userService.getById(registered.getId(), UserFetchProfile.CART));
+        cartService.addGameToCart(removedMeanwhile, userService.getById(registered.getId(), UserFetchProfile.CART));
+
+        User user = userService.getById(registered.getId(), UserFetchProfile.CART);
+        // Another request removes a game after this one has priced the cart
+        user.getCart().getItems().stream().filter(item -> item.getGame().getId().equals(removedMeanwhile.getId()))
+                .forEach(item -> cartItemRepository.deleteById(item.getId()));
+
+        assertThrows(FailedPurchaseException.class, () -> userService.purchaseCartItems(user));
+
+        assertTrue(userRepository.findOwnedGameIds(user.getId()).isEmpty());
+        assertEquals(0, BigDecimal.valueOf(500).compareTo(balanceService.getBalance(user.getId())));
+        assertEquals(1, cartItemRepository.count());
+        assertTrue(transactionRepository.findByOwnerIdOrderByCreatedOnDesc(user.getId()).isEmpty());
+        verify(notificationEventPublisher, never()).publish(any());
     }
 }
@@ -0,0 +1,116 @@
+package app.newellgames;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.review.model.Review;
+import app.newellgames.review.model.ReviewPage;
+import app.newellgames.review.model.ReviewType;
+import app.newellgames.review.repository.ReviewRepository;
+import app.newellgames.review.service.ReviewService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+@TestPropertySource(properties = "reviews.page-size=3")
+public class ReviewFeedITest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void reviewFeed_IsReadNewestFirstPageByPage() {
+
+        User author = userService.register(RegisterRequest.builder().username("reviewer").password("password").build());
+        Game game = gameRepository.save(aRandomGame());
+        Game otherGame = gameRepository.save(aRandomGame());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 7; i++) {
+            saveReview(author, game, i % 2 == 0 ? ReviewType.POSITIVE : ReviewType.NEGATIVE, now.minusMinutes(i));
+        }
+        saveReview(author, otherGame, ReviewType.POSITIVE, now.plusMinutes(1));
+
+        List<Review> feed = new ArrayList<>();
+        ReviewPage page = reviewService.getReviewPage(game.getId(), null, null, null);
+        feed.addAll(page.getReviews());
+        while (page.isHasNext()) {
+            assertEquals(3, page.getReviews().size());
+            page = reviewService.getReviewPage(game.getId(), null, page.getNextCreatedOn(), page.getNextId());
+            feed.addAll(page.getReviews());
+        }
+
+        assertEquals(7, feed.size());
+        assertEquals(7, feed.stream().map(Review::getId).distinct().count());
+        assertTrue(feed.stream().allMatch(review -> review.getGame().getId().equals(game.getId())));
+        for (int i = 1; i < feed.size(); i++) {
+            assertFalse(feed.get(i).getCreatedOn().isAfter(feed.get(i - 1).getCreatedOn()));
+        }
+    }
+
+    @Test
+    void reviewFeed_FilteredByType_ReturnsOnlyThatType() {
+
+        User author = userService.register(RegisterRequest.builder().username("reviewer").password("password").build());
+        Game game = gameRepository.save(aRandomGame());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            saveReview(author, game, i < 4 ? ReviewType.NEGATIVE : ReviewType.POSITIVE, now.minusMinutes(i));
+        }
+
+        ReviewPage negative = reviewService.getReviewPage(game.getId(), ReviewType.NEGATIVE, null, null);
+        ReviewPage positive = reviewService.getReviewPage(game.getId(), ReviewType.POSITIVE, null, null);
+
+        assertEquals(3, negative.getReviews().size());
+        assertTrue(negative.isHasNext());
+        assertTrue(negative.getReviews().stream().allMatch(review -> review.getType() == ReviewType.NEGATIVE));
+        assertEquals(1, positive.getReviews().size());
+        assertFalse(positive.isHasNext());
+
+        ReviewPage nextNegative = reviewService.getReviewPage(game.getId(), ReviewType.NEGATIVE, negative.getNextCreatedOn(), negative.getNextId());
+        assertEquals(1, nextNegative.getReviews().size());
+        assertEquals(ReviewType.NEGATIVE, nextNegative.getReviews().get(0).getType());
+        assertFalse(nextNegative.isHasNext());
+    }
+
+    private void saveReview(User author, Game game, ReviewType type, LocalDateTime createdOn) {
+
+        reviewRepository.save(Review.builder()
+                .title("title " + UUID.randomUUID())
+                .reviewDescription("description")
+                .author(author)
+                .game(game)
+                .type(type)
+                .createdOn(createdOn)
+                .build());
+    }
+}
@@ -0,0 +1,49 @@
+package app.newellgames;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.game.service.GameService;
+import app.newellgames.notification.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = "shop.catalog.max-age=300ms")
+public class ShopCatalogExpiryITest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    // A game written by another instance (or straight to the DB) shows up in the search once the catalog expires
+    @Test
+    void gameAddedBehindTheCatalogsBack_IsFoundAfterTheCatalogExpires() throws InterruptedException {
+
+        assertTrue(gameService.searchGames("hollow", null, null, null, null, null).getGames().isEmpty());
+
+        Game game = aRandomGame();
+        game.setTitle("Hollow Knight");
+        Game saved = gameRepository.save(game);
+
+        assertTrue(gameService.searchGames("hollow", null, null, null, null, null).getGames().isEmpty());
+
+        Thread.sleep(400);
+
+        assertEquals(saved.getId(), gameService.searchGames("hollow", null, null, null, null, null).getGames().stream()
+                .map(GameSummary::getId).findFirst().orElse(null));
+    }
+}
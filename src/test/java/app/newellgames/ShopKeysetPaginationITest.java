@@ -0,0 +1,92 @@
+package app.newellgames;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.model.Genre;
+import app.newellgames.game.repository.GameRepository;
+import app.newellgames.game.service.GameService;
+import app.newellgames.notification.service.NotificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = "shop.page-size=2")
+public class ShopKeysetPaginationITest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void walkingThroughAllPages_ReturnsEveryGameOnceInTitleOrder() {
+
+        // Same title twice, so the id has to break the tie
+        List<Game> games = new ArrayList<>();
+        for (String title : List.of("Alpha", "Beta", "Beta", "Gamma", "Delta")) {
+            Game game = aRandomGame();
+            game.setTitle(title);
+            games.add(game);
+        }
+        gameRepository.saveAll(games);
+        long total = gameRepository.count();
+
+        List<UUID> seen = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        GamePage page = gameService.getGamesPage(null, null);
+        while (true) {
+            assertTrue(page.getGames().size() <= 2);
+            page.getGames().forEach(game -> {
+                seen.add(game.getId());
+                titles.add(game.getTitle());
+            });
+            if (!page.isHasNext()) {
+                break;
+            }
+            page = gameService.getGamesPage(page.getNextTitle(), page.getNextId());
+        }
+
+        assertEquals(total, seen.size());
+        assertEquals(total, seen.stream().distinct().count());
+        assertEquals(titles.stream().sorted((a, b) -> b.compareTo(a)).toList(), titles);
+    }
+
+    @Test
+    void searchPages_UseTheSameCursorAsTheDatabasePages() {
+
+        List<Game> games = new ArrayList<>();
+        for (String title : List.of("Zelda One", "Zelda Two", "Zelda Three")) {
+            Game game = aRandomGame();
+            game.setTitle(title);
+            game.setGenre(Genre.Adventure);
+            games.add(game);
+        }
+        gameRepository.saveAll(games);
+        gameService.invalidateCatalog();
+
+        GamePage firstPage = gameService.searchGames("zelda", null, null, null, null, null);
+        GamePage secondPage = gameService.searchGames("zelda", null, null, null, firstPage.getNextTitle(), firstPage.getNextId());
+
+        assertEquals(List.of("Zelda Two", "Zelda Three"), firstPage.getGames().stream().map(GameSummary::getTitle).toList());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(List.of("Zelda One"), secondPage.getGames().stream().map(GameSummary::getTitle).toList());
+        assertFalse(secondPage.isHasNext());
+    }
+}
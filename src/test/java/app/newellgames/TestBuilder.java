@@ -10,6 +10,7 @@ import app.newellgames.transaction.model.Transaction;
 import app.newellgames.transaction.model.TransactionStatus;
 import app.newellgames.user.model.User;
 import app.newellgames.user.model.UserRole;
+import app.newellgames.user.model.UserSummary;
 import lombok.experimental.UtilityClass;
 
 import java.math.BigDecimal;
@@ -49,6 +50,20 @@ public class TestBuilder {
         return user;
     }
 
+    public static UserSummary aRandomUserSummary() {
+
+        return UserSummary.builder()
+                .id(UUID.randomUUID())
+                .username("randomUser")
+                .email("random@user.com")
+                .role(UserRole.USER)
+                .active(true)
+                .balance(BigDecimal.valueOf(100))
+                .profilePicture(null)
+                .cartCount(1)
+                .build();
+    }
+
     public static Game aRandomGame() {
 
         return Game.builder()
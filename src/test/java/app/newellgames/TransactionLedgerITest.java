@@ -0,0 +1,127 @@
+package app.newellgames;
+
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionFilter;
+import app.newellgames.transaction.model.TransactionPage;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
+import app.newellgames.transaction.repository.TransactionRepository;
+import app.newellgames.transaction.service.TransactionService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest(properties = "transactions.admin.page-size=3")
+public class TransactionLedgerITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void walkingThroughAllPages_ReturnsEveryTransactionOnceNewestFirst() {
+
+        User user = register("ledgerUser");
+        LocalDateTime sameTime = LocalDateTime.of(2025, 3, 10, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            // Every second transaction has the same createdOn, so the id has to break the tie
+            save(user, i % 2 == 0 ? sameTime : sameTime.minusDays(i), TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT);
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        List<LocalDateTime> createdOn = new ArrayList<>();
+        TransactionPage page = transactionService.getLedgerPage(new TransactionFilter(), null, null);
+        while (true) {
+            assertTrue(page.getTransactions().size() <= 3);
+            page.getTransactions().forEach(transaction -> {
+                seen.add(transaction.getId());
+                createdOn.add(transaction.getCreatedOn());
+            });
+            if (!page.isHasNext()) {
+                break;
+            }
+            page = transactionService.getLedgerPage(new TransactionFilter(), page.getNextCreatedOn(), page.getNextId());
+        }
+
+        assertEquals(7, seen.size());
+        assertEquals(7, seen.stream().distinct().count());
+        assertEquals(createdOn.stream().sorted((a, b) -> b.compareTo(a)).toList(), createdOn);
+    }
+
+    @Test
+    void filters_AreAppliedOnTheServer() {
+
+        User alice = register("alice");
+        User bob = register("bob");
+        save(alice, LocalDateTime.of(2025, 1, 5, 10, 0), TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT);
+        save(alice, LocalDateTime.of(2025, 1, 20, 10, 0), TransactionStatus.FAILED, TransactionType.PURCHASE);
+        save(bob, LocalDateTime.of(2025, 1, 31, 23, 59), TransactionStatus.FAILED, TransactionType.DEPOSIT);
+        save(bob, LocalDateTime.of(2025, 2, 1, 0, 0), TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT);
+
+        // Exact username, not a "contains" search
+        assertEquals(2, ledger(TransactionFilter.builder().owner("alice").build()).size());
+        assertEquals(0, ledger(TransactionFilter.builder().owner("ali").build()).size());
+        assertEquals(2, ledger(TransactionFilter.builder().owner(bob.getId().toString()).build()).size());
+
+        assertEquals(2, ledger(TransactionFilter.builder().status(TransactionStatus.FAILED).build()).size());
+        assertEquals(1, ledger(TransactionFilter.builder().type(TransactionType.PURCHASE).build()).size());
+
+        // Both days are inclusive
+        List<Transaction> january = ledger(TransactionFilter.builder().from(LocalDate.of(2025, 1, 5)).to(LocalDate.of(2025, 1, 31)).build());
+        assertEquals(3, january.size());
+
+        List<Transaction> combined = ledger(TransactionFilter.builder().owner("bob").status(TransactionStatus.FAILED).type(TransactionType.DEPOSIT).build());
+        assertEquals(1, combined.size());
+        assertEquals(bob.getId(), combined.get(0).getOwner().getId());
+    }
+
+    private List<Transaction> ledger(TransactionFilter filter) {
+        return transactionService.getLedgerPage(filter, null, null).getTransactions();
+    }
+
+    private User register(String username) {
+
+        return userService.register(RegisterRequest.builder()
+                .username(username)
+                .password("password")
+                .build());
+    }
+
+    private void save(User owner, LocalDateTime createdOn, TransactionStatus status, TransactionType type) {
+
+        transactionRepository.save(Transaction.builder()
+                .owner(owner)
+                .amount(BigDecimal.TEN)
+                .createdOn(createdOn)
+                .completedOn(createdOn)
+                .status(status)
+                .type(type)
+                .build());
+    }
+}
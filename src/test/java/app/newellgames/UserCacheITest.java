@@ -0,0 +1,113 @@
+package app.newellgames;
+
+import app.newellgames.notification.client.dto.NotificationPreference;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.security.AuthenticationMetadata;
+import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserRole;
+import app.newellgames.user.model.UserSummary;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.DepositRequest;
+import app.newellgames.web.dto.EditProfileRequest;
+import app.newellgames.web.dto.RegisterRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class UserCacheITest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void topUp_OnlyEvictsTheSummaryOfThatUser() {
+
+        User first = register("first");
+        User second = register("second");
+        userService.getSummary(first.getId());
+        userService.getSummary(second.getId());
+
+        userService.topUp(first, DepositRequest.builder().amount(BigDecimal.TEN).build());
+
+        assertNull(cacheManager.getCache("userSummaries").get(first.getId()));
+        assertNotNull(cacheManager.getCache("userSummaries").get(second.getId()));
+    }
+
+    @Test
+    void loadUserByUsername_IsCachedAndEvictedWhenRoleChanges() {
+
+        User user = register("principal");
+
+        userService.loadUserByUsername("principal");
+        assertNotNull(cacheManager.getCache("usersByUsername").get("principal"));
+
+        userService.switchUserRoleToAdmin(user);
+        assertNull(cacheManager.getCache("usersByUsername").get("principal"));
+
+        AuthenticationMetadata principal = (AuthenticationMetadata) userService.loadUserByUsername("principal");
+        assertEquals(UserRole.ADMIN, principal.getRole());
+    }
+
+    @Test
+    void editProfile_EvictsThePrincipalCachedUnderTheOldUsername() {
+
+        User user = register("oldName");
+        userService.loadUserByUsername("oldName");
+
+        when(notificationService.getNotificationPreference(any())).thenReturn(new NotificationPreference());
+        userService.editProfile(user, EditProfileRequest.builder()
+                .username("newName")
+                .email("new@example.com")
+                .profilePicture("")
+                .build());
+
+        assertNull(cacheManager.getCache("usersByUsername").get("oldName"));
+    }
+
+    @Test
+    void usersPage_IsCachedByPageNumberAndPublishesHitAndMissMetrics() {
+
+        register("pagedUser");
+
+        userService.getUsersPage(0);
+        userService.getUsersPage(0);
+
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userPages").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userPages").tag("result", "miss").functionCounter().count());
+        assertNotNull(cacheManager.getCache("userPages").get(0));
+        Slice<?> cached = (Slice<?>) cacheManager.getCache("userPages").get(0).get();
+        assertInstanceOf(UserSummary.class, cached.getContent().get(0));
+    }
+
+    private User register(String username) {
+
+        return userService.register(RegisterRequest.builder()
+                .username(username)
+                .password("password")
+                .build());
+    }
+}
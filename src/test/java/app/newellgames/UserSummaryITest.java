@@ -0,0 +1,83 @@
+package app.newellgames;
+
+import app.newellgames.notification.client.dto.NotificationPreference;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserRole;
+import app.newellgames.user.model.UserSummary;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.DepositRequest;
+import app.newellgames.web.dto.EditProfileRequest;
+import app.newellgames.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@SpringBootTest
+public class UserSummaryITest {
+
+    @Autowired
+    private UserService userService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Test
+    void getSummary_ReturnsHeaderDataOfTheUser() {
+
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .username("testuser")
+                .password("password")
+                .build();
+
+        User user = userService.register(registerRequest);
+
+        UserSummary summary = userService.getSummary(user.getId());
+
+        assertEquals(user.getId(), summary.getId());
+        assertEquals("testuser", summary.getUsername());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getBalance()));
+        assertEquals(UserRole.USER, summary.getRole());
+        assertEquals(0, summary.getCartCount());
+    }
+
+    @Test
+    void getSummary_IsRefreshedAfterTopUpAndProfileChange() {
+
+        RegisterRequest registerRequest = RegisterRequest.builder()
+                .username("testuser")
+                .password("password")
+                .build();
+
+        User user = userService.register(registerRequest);
+        userService.getSummary(user.getId());
+
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.TEN).build());
+
+        EditProfileRequest editProfileRequest = EditProfileRequest.builder()
+                .username("renamed")
+                .email("renamed@example.com")
+                .profilePicture("cool picture")
+                .build();
+
+        when(notificationService.getNotificationPreference(any())).thenReturn(new NotificationPreference());
+        userService.editProfile(user, editProfileRequest);
+
+        UserSummary summary = userService.getSummary(user.getId());
+
+        assertEquals(0, BigDecimal.TEN.compareTo(summary.getBalance()));
+        assertEquals("renamed", summary.getUsername());
+        assertEquals("cool picture", summary.getProfilePicture());
+    }
+}
@@ -0,0 +1,131 @@
+package app.newellgames.game;
+
+import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.model.Genre;
+import app.newellgames.game.service.GameCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameCatalogUTest {
+
+    private final GameSummary eldenRing = aGame("Elden Ring", "FromSoftware", Genre.RPG, 60);
+    private final GameSummary dota = aGame("Dota 2", "Valve", Genre.MMO, 0);
+    private final GameSummary cyberpunk = aGame("Cyberpunk 2077", "CD Projekt Red", Genre.RPG, 30);
+
+    private final GameCatalog catalog = GameCatalog.of(List.of(eldenRing, dota, cyberpunk));
+
+    @Test
+    void givenTitlePrefixInAnyCase_whenSearch_thenGameIsFound() {
+
+        assertThat(search("ELD", null, null, null)).containsExactly(eldenRing);
+        assertThat(search("  elden   r ", null, null, null)).containsExactly(eldenRing);
+    }
+
+    @Test
+    void givenPrefixOfASecondWordOrPublisher_whenSearch_thenGameIsFound() {
+
+        assertThat(search("ring", null, null, null)).containsExactly(eldenRing);
+        assertThat(search("va", null, null, null)).containsExactly(dota);
+    }
+
+    @Test
+    void givenTextInsideAWord_whenSearch_thenTrigramIndexFindsIt() {
+
+        assertThat(search("punk", null, null, null)).containsExactly(cyberpunk);
+        assertThat(search("soft", null, null, null)).containsExactly(eldenRing);
+        assertThat(search("xyz", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void givenGenreAndPriceFilters_whenSearch_thenOnlyMatchingGamesAreReturnedInCatalogOrder() {
+
+        assertThat(search(null, Genre.RPG, null, null)).containsExactly(eldenRing, cyberpunk);
+        assertThat(search("", Genre.RPG, null, BigDecimal.valueOf(40))).containsExactly(cyberpunk);
+        assertThat(search(null, null, BigDecimal.valueOf(1), null)).containsExactly(eldenRing, cyberpunk);
+    }
+
+    @Test
+    void givenCursor_whenSearch_thenNextPageStartsAfterIt() {
+
+        GamePage firstPage = catalog.search(null, null, null, null, null, null, 2);
+        GamePage secondPage = catalog.search(null, null, null, null, firstPage.getNextTitle(), firstPage.getNextId(), 2);
+
+        assertThat(firstPage.getGames()).containsExactly(eldenRing, dota);
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(secondPage.getGames()).containsExactly(cyberpunk);
+        assertThat(secondPage.isHasNext()).isFalse();
+    }
+
+    @Test
+    void givenRatingOrder_whenSearchByRating_thenBestRatedGamesComeFirstAndCursorContinuesAfterThem() {
+
+        GameSummary ratedEldenRing = eldenRing.withRating(4, 6, 0.4);
+        GameSummary ratedDota = dota.withRating(9, 1, 0.9);
+        GameSummary ratedCyberpunk = cyberpunk.withRating(6, 4, 0.6);
+        GameCatalog ratedCatalog = GameCatalog.of(List.of(ratedEldenRing, ratedDota, ratedCyberpunk));
+
+        GamePage firstPage = ratedCatalog.searchByRating(null, null, null, null, null, null, 2);
+        GamePage secondPage = ratedCatalog.searchByRating(null, null, null, null, firstPage.getNextRating(), firstPage.getNextId(), 2);
+
+        assertThat(firstPage.getGames()).containsExactly(ratedDota, ratedCyberpunk);
+        assertThat(secondPage.getGames()).containsExactly(ratedEldenRing);
+        assertThat(ratedCatalog.searchByRating(null, Genre.RPG, null, null, null, null, 10).getGames()).containsExactly(ratedCyberpunk, ratedEldenRing);
+    }
+
+    @Test
+    void givenNewRating_whenWithRating_thenOnlyThatGameMovesAndOlderRatingsAreIgnored() {
+
+        GameCatalog rated = catalog.withRating(cyberpunk.getId(), cyberpunk.getPositiveReviews() + 1, cyberpunk.getNegativeReviews(), 0.2);
+        GameCatalog outOfOrder = rated.withRating(cyberpunk.getId(), cyberpunk.getPositiveReviews(), cyberpunk.getNegativeReviews(), 0.1);
+
+        assertThat(rated.searchByRating(null, null, null, null, null, null, 10).getGames())
+                .extracting(GameSummary::getId).startsWith(cyberpunk.getId());
+        assertThat(rated.search("punk", null, null, null, null, null, 10).getGames())
+                .extracting(GameSummary::getRatingScore).containsExactly(0.2);
+        assertThat(outOfOrder).isSameAs(rated);
+        assertThat(catalog.searchByRating(null, null, null, null, null, null, 10).getGames()).extracting(GameSummary::getRatingScore).containsOnly(0.0);
+    }
+
+    @Test
+    void givenManyGamesSharingPrefixesAndWordsRepeatedInTitleAndPublisher_whenSearch_thenEveryGameIsFoundOnce() {
+
+        List<GameSummary> games = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            games.add(aGame("Valve Arena %03d".formatted(i), "Valve", Genre.MMO, i));
+        }
+        GameCatalog bigCatalog = GameCatalog.of(games);
+
+        List<GameSummary> found = bigCatalog.search("valve", null, null, null, null, null, 500).getGames();
+        List<GameSummary> arena = bigCatalog.search("arena 12", null, null, null, null, null, 500).getGames();
+
+        assertThat(found).hasSize(300).doesNotHaveDuplicates();
+        assertThat(arena).extracting(GameSummary::getTitle).containsExactlyInAnyOrder(
+                "Valve Arena 120", "Valve Arena 121", "Valve Arena 122", "Valve Arena 123", "Valve Arena 124",
+                "Valve Arena 125", "Valve Arena 126", "Valve Arena 127", "Valve Arena 128", "Valve Arena 129");
+    }
+
+    private List<GameSummary> search(String query, Genre genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        return catalog.search(query, genre, minPrice, maxPrice, null, null, 10).getGames();
+    }
+
+    private GameSummary aGame(String title, String publisher, Genre genre, int price) {
+
+        Game game = aRandomGame();
+        game.setId(UUID.randomUUID());
+        game.setTitle(title);
+        game.setPublisher(publisher);
+        game.setGenre(genre);
+        game.setPrice(BigDecimal.valueOf(price));
+
+        return GameSummary.of(game);
+    }
+}
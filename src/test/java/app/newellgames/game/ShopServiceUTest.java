@@ -0,0 +1,76 @@
+package app.newellgames.game;
+
+import app.newellgames.cart.service.CartService;
+import app.newellgames.game.model.*;
+import app.newellgames.game.service.GameService;
+import app.newellgames.game.service.ShopService;
+import app.newellgames.user.service.OwnershipService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomGame;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShopServiceUTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private OwnershipService ownershipService;
+
+    @Mock
+    private CartService cartService;
+
+    @InjectMocks
+    private ShopService shopService;
+
+    @Test
+    void givenOwnedAndCartGames_whenGetShopPage_thenEveryGameCarriesItsFlags() {
+        UUID userId = UUID.randomUUID();
+        GameSummary owned = aGame();
+        GameSummary inCart = aGame();
+        GameSummary other = aGame();
+
+        when(gameService.getGamesPage(null, null)).thenReturn(GamePage.of(List.of(owned, inCart, other), 24));
+        when(ownershipService.getOwnedGameIds(userId)).thenReturn(Set.of(owned.getId()));
+        when(cartService.getGameIdsInCart(userId)).thenReturn(Set.of(inCart.getId()));
+
+        ShopPage shopPage = shopService.getShopPage(userId, ShopFilter.builder().build(), null, null, null);
+
+        assertThat(shopPage.getGames()).extracting(ShopGame::getGame).containsExactly(owned, inCart, other);
+        assertThat(shopPage.getGames()).extracting(ShopGame::isOwned).containsExactly(true, false, false);
+        assertThat(shopPage.getGames()).extracting(ShopGame::isInCart).containsExactly(false, true, false);
+    }
+
+    @Test
+    void givenFiltersAndRatingSort_whenGetShopPage_thenCatalogIsSearchedByRating() {
+        UUID userId = UUID.randomUUID();
+        ShopFilter filter = ShopFilter.builder().genre(Genre.RPG).sort(GameSort.RATING).build();
+
+        when(gameService.searchGamesByRating(null, Genre.RPG, null, null, 0.5, null)).thenReturn(GamePage.of(List.of(), 24));
+        when(ownershipService.getOwnedGameIds(userId)).thenReturn(Set.of());
+        when(cartService.getGameIdsInCart(userId)).thenReturn(Set.of());
+
+        shopService.getShopPage(userId, filter, null, 0.5, null);
+
+        verify(gameService, never()).getGamesPage(any(), any());
+        verify(gameService, never()).searchGames(any(), any(), any(), any(), any(), any());
+    }
+
+    private GameSummary aGame() {
+        Game game = aRandomGame();
+        game.setId(UUID.randomUUID());
+        return GameSummary.of(game);
+    }
+}
@@ -0,0 +1,92 @@
+package app.newellgames.idempotency;
+
+import app.newellgames.exception.FailedTopUpException;
+import app.newellgames.idempotency.service.IdempotencyService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyServiceUTest {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(Caffeine.newBuilder().maximumSize(100).build());
+
+    @Test
+    void givenSameKeyTwice_whenExecute_thenActionRunsOnceAndFirstResultIsReturned() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+
+        int first = idempotencyService.execute(userId, "key-1", runs::incrementAndGet);
+        int second = idempotencyService.execute(userId, "key-1", runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        assertEquals(1, first);
+        assertEquals(1, second);
+    }
+
+    @Test
+    void givenSameKeyForDifferentUsersOrNoKey_whenExecute_thenActionRunsEveryTime() {
+        AtomicInteger runs = new AtomicInteger();
+
+        idempotencyService.execute(UUID.randomUUID(), "key-1", runs::incrementAndGet);
+        idempotencyService.execute(UUID.randomUUID(), "key-1", runs::incrementAndGet);
+        idempotencyService.execute(UUID.randomUUID(), null, runs::incrementAndGet);
+        idempotencyService.execute(UUID.randomUUID(), " ", runs::incrementAndGet);
+
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void givenFailedAction_whenExecuteAgainWithSameKey_thenActionRunsAgain() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThrows(FailedTopUpException.class, () -> idempotencyService.execute(userId, "key-1", () -> {
+            runs.incrementAndGet();
+            throw new FailedTopUpException("failed");
+        }));
+        idempotencyService.execute(userId, "key-1", runs::incrementAndGet);
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void givenParallelSubmissionsWithSameKey_whenExecute_thenActionRunsOnceAndAllGetItsResult() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return idempotencyService.execute(userId, "key-1", () -> {
+                    sleep();
+                    return runs.incrementAndGet();
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, runs.get());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
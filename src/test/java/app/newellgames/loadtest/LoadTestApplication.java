@@ -0,0 +1,15 @@
+package app.newellgames.loadtest;
+
+import app.newellgames.NewellGamesApplication;
+import org.springframework.boot.SpringApplication;
+
+// Starts the main app with the load-test profile from the test classpath, the seeder and the stub don't ship in the jar
+// Run with: mvn spring-boot:test-run
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(NewellGamesApplication.class);
+        application.setAdditionalProfiles("load-test");
+        application.run(args);
+    }
+}
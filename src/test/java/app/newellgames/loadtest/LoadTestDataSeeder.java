@@ -0,0 +1,234 @@
+package app.newellgames.loadtest;
+
+import app.newellgames.game.model.Genre;
+import app.newellgames.game.service.GameService;
+import app.newellgames.review.model.ReviewType;
+import app.newellgames.user.model.UserRole;
+import app.newellgames.utility.RatingUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Bulk seeds a production sized dataset for the load-test profile
+// - N users (loaduser0 .. loaduserN-1, all with load-test.seed.password) with a cart and an opening balance entry
+// - M games titled "Load Test Game 000000" .., every user owns games-per-user of them and reviews reviews-per-user of those
+// - review counts and rating score of the games are calculated here, so they match the seeded reviews
+// - rows are written with JdbcTemplate batch inserts (rewriteBatchedStatements=true on MySQL), one transaction per table
+// - nothing is seeded when loaduser0 already exists, so a local MySQL is seeded only once
+@Slf4j
+@Component
+@Profile("load-test")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+    public static final String USERNAME_PREFIX = "loaduser";
+    public static final String GAME_TITLE_FORMAT = "Load Test Game %06d";
+
+    private static final String[] PUBLISHERS = {"Valve", "FromSoftware", "CD Projekt Red", "Nintendo", "Bethesda", "Ubisoft", "Capcom", "Sega"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final GameService gameService;
+
+    @Value("${load-test.seed.users:10000}")
+    private int users;
+
+    @Value("${load-test.seed.games:2000}")
+    private int games;
+
+    @Value("${load-test.seed.games-per-user:20}")
+    private int gamesPerUser;
+
+    @Value("${load-test.seed.reviews-per-user:2}")
+    private int reviewsPerUser;
+
+    @Value("${load-test.seed.balance:1000000}")
+    private BigDecimal balance;
+
+    @Value("${load-test.seed.password:password}")
+    private String password;
+
+    @Value("${load-test.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${load-test.seed.random-seed:42}")
+    private long randomSeed;
+
+    private boolean binaryUuids;
+
+    @Autowired
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, PasswordEncoder passwordEncoder, GameService gameService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.gameService = gameService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, USERNAME_PREFIX + 0);
+        if (existing != null && existing > 0) {
+            log.info("Load test data is already seeded, skipping.");
+            return;
+        }
+
+        // Hibernate maps UUID to binary(16) on MySQL and to the native uuid type on H2
+        ConnectionCallback<String> databaseProductName = connection -> connection.getMetaData().getDatabaseProductName();
+        binaryUuids = String.valueOf(jdbcTemplate.execute(databaseProductName)).toLowerCase(Locale.ROOT).contains("mysql");
+
+        long start = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<UUID> gameIds = randomIds(games, random);
+        List<UUID> userIds = randomIds(users, random);
+
+        // Ownership and reviews first, the games are inserted with the review counts they end up with
+        List<UUID[]> ownership = new ArrayList<>(users * Math.min(gamesPerUser, games));
+        List<Object[]> reviews = new ArrayList<>(users * reviewsPerUser);
+        int[] positive = new int[games];
+        int[] negative = new int[games];
+        for (UUID userId : userIds) {
+            int[] owned = distinctIndexes(Math.min(gamesPerUser, games), games, random);
+            for (int i = 0; i < owned.length; i++) {
+                ownership.add(new UUID[]{userId, gameIds.get(owned[i])});
+                if (i < reviewsPerUser) {
+                    ReviewType type = random.nextInt(4) == 0 ? ReviewType.NEGATIVE : ReviewType.POSITIVE;
+                    if (type == ReviewType.POSITIVE) {
+                        positive[owned[i]]++;
+                    } else {
+                        negative[owned[i]]++;
+                    }
+                    reviews.add(new Object[]{UUID.randomUUID(), userId, gameIds.get(owned[i]), type, now.minusMinutes(random.nextInt(500_000))});
+                }
+            }
+        }
+
+        List<Integer> gameIndexes = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            gameIndexes.add(i);
+        }
+        insert("games", "INSERT INTO games (id, title, description, publisher, price, release_date, image_url, genre, positive_reviews, negative_reviews, rating_score) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                gameIndexes, (statement, i) -> {
+                    statement.setObject(1, uuid(gameIds.get(i)));
+                    statement.setString(2, GAME_TITLE_FORMAT.formatted(i));
+                    statement.setString(3, "Seeded game number %d.".formatted(i));
+                    statement.setString(4, PUBLISHERS[i % PUBLISHERS.length]);
+                    statement.setBigDecimal(5, BigDecimal.valueOf(99 + (i * 37L) % 5900, 2));
+                    statement.setDate(6, Date.valueOf(LocalDate.of(2000, 1, 1).plusDays(i % 9000)));
+                    statement.setString(7, "Cool Picture");
+                    statement.setString(8, Genre.values()[i % Genre.values().length].name());
+                    statement.setInt(9, positive[i]);
+                    statement.setInt(10, negative[i]);
+                    statement.setDouble(11, RatingUtility.wilsonLowerBound(positive[i], negative[i]));
+                });
+
+        String passwordHash = passwordEncoder.encode(password);
+        List<Integer> userIndexes = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userIndexes.add(i);
+        }
+        insert("users", "INSERT INTO users (id, username, password, email, balance, role, created_on, updated_on, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                userIndexes, (statement, i) -> {
+                    statement.setObject(1, uuid(userIds.get(i)));
+                    statement.setString(2, USERNAME_PREFIX + i);
+                    statement.setString(3, passwordHash);
+                    statement.setString(4, "%s%d@newellgames.com".formatted(USERNAME_PREFIX, i));
+                    statement.setBigDecimal(5, balance);
+                    statement.setString(6, UserRole.USER.name());
+                    statement.setTimestamp(7, Timestamp.valueOf(now));
+                    statement.setTimestamp(8, Timestamp.valueOf(now));
+                    statement.setBoolean(9, true);
+                });
+
+        insert("carts", "INSERT INTO carts (id, user_id) VALUES (?, ?)", userIds, (statement, userId) -> {
+            statement.setObject(1, uuid(UUID.randomUUID()));
+            statement.setObject(2, uuid(userId));
+        });
+
+        // Opening entry, so BalanceService.reconcile holds for the seeded balance
+        insert("balance_entries", "INSERT INTO balance_entries (id, user_id, amount, balance_after, created_on) VALUES (?, ?, ?, ?, ?)", userIds, (statement, userId) -> {
+            statement.setObject(1, uuid(UUID.randomUUID()));
+            statement.setObject(2, uuid(userId));
+            statement.setBigDecimal(3, balance);
+            statement.setBigDecimal(4, balance);
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+        });
+
+        insert("users_games", "INSERT INTO users_games (user_id, game_id) VALUES (?, ?)", ownership, (statement, row) -> {
+            statement.setObject(1, uuid(row[0]));
+            statement.setObject(2, uuid(row[1]));
+        });
+
+        insert("review", "INSERT INTO review (id, title, review_description, author_id, game_id, type, created_on) VALUES (?, ?, ?, ?, ?, ?, ?)", reviews, (statement, row) -> {
+            statement.setObject(1, uuid((UUID) row[0]));
+            statement.setString(2, row[3] == ReviewType.POSITIVE ? "Recommended" : "Not recommended");
+            statement.setString(3, "Seeded review.");
+            statement.setObject(4, uuid((UUID) row[1]));
+            statement.setObject(5, uuid((UUID) row[2]));
+            statement.setString(6, ((ReviewType) row[3]).name());
+            statement.setTimestamp(7, Timestamp.valueOf((LocalDateTime) row[4]));
+        });
+
+        gameService.invalidateCatalog();
+        log.info("Seeded %d users, %d games, %d owned games and %d reviews in %d ms.".formatted(users, games, ownership.size(), reviews.size(), System.currentTimeMillis() - start));
+    }
+
+    private <T> void insert(String table, String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows, batchSize, setter));
+        log.info("Seeded %d rows into %s.".formatted(rows.size(), table));
+    }
+
+    private Object uuid(UUID uuid) {
+
+        if (!binaryUuids) {
+            return uuid;
+        }
+
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    private static List<UUID> randomIds(int count, Random random) {
+
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+
+        return ids;
+    }
+
+    // count distinct indexes out of [0, bound), partial Fisher-Yates over a lazily swapped range
+    private static int[] distinctIndexes(int count, int bound, Random random) {
+
+        Map<Integer, Integer> swapped = new HashMap<>();
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(bound - i);
+            int atJ = swapped.getOrDefault(j, j);
+            indexes[i] = atJ;
+            swapped.put(j, swapped.getOrDefault(i, i));
+        }
+
+        return indexes;
+    }
+}
@@ -0,0 +1,105 @@
+package app.newellgames.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Local stand-in for notification-svc in the load-test profile, so the harness runs without the second service
+// - plain JDK HTTP server on load-test.notification-stub.port, notification-svc.base-url points at it
+// - the Feign client, its connection pool, the bulkhead and the circuit breaker are exercised as in production
+// - every preference is EMAIL and enabled, histories are empty, writes are accepted and dropped
+// - load-test.notification-stub.latency adds a fixed delay to every response, to mimic a remote service
+@Slf4j
+@Component
+@Profile("load-test")
+public class NotificationServiceStub {
+
+    private static final String BASE_PATH = "/api/v1/notifications";
+
+    private final int port;
+    private final Duration latency;
+    private final int threads;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public NotificationServiceStub(@Value("${load-test.notification-stub.port:18081}") int port,
+                                   @Value("${load-test.notification-stub.latency:0ms}") Duration latency,
+                                   @Value("${load-test.notification-stub.threads:50}") int threads) {
+        this.port = port;
+        this.latency = latency;
+        this.threads = threads;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+
+        executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext(BASE_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("notification-svc stub is listening on http://localhost:%d%s".formatted(port, BASE_PATH));
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try (exchange; InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.readAllBytes();
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET")) {
+                respond(exchange, method.equals("POST") ? 201 : 200, null);
+                return;
+            }
+
+            switch (path) {
+                case "/preferences" -> respond(exchange, 200, "{\"type\":\"EMAIL\",\"enabled\":true,\"contactInfo\":\"loaduser@newellgames.com\"}");
+                case "/summary" -> respond(exchange, 200, "{\"succeeded\":0,\"failed\":0,\"pending\":0}");
+                case "", "/", "/recent" -> respond(exchange, 200, "[]");
+                default -> respond(exchange, 404, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package app.newellgames.notification;
+
+import app.newellgames.notification.event.NotificationEvent;
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.model.OutboxNotification;
+import app.newellgames.notification.model.OutboxStatus;
+import app.newellgames.notification.repository.OutboxNotificationRepository;
+import app.newellgames.notification.service.NotificationOutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxRelayUTest {
+
+    @Mock
+    private OutboxNotificationRepository outboxNotificationRepository;
+
+    @Mock
+    private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private NotificationOutboxRelay notificationOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        notificationOutboxRelay = new NotificationOutboxRelay(outboxNotificationRepository, kafkaTemplate, objectMapper, transactionManager);
+        ReflectionTestUtils.setField(notificationOutboxRelay, "topic", "notification-events");
+        ReflectionTestUtils.setField(notificationOutboxRelay, "batchSize", 10);
+        ReflectionTestUtils.setField(notificationOutboxRelay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(notificationOutboxRelay, "initialBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(notificationOutboxRelay, "maxBackoff", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(notificationOutboxRelay, "claimTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(notificationOutboxRelay, "sendTimeout", Duration.ofSeconds(1));
+    }
+
+    @Test
+    void whenEventIsPublished_thenItIsSentKeyedByTheUserIdAndRemovedFromTheOutbox() throws Exception {
+        OutboxNotification outboxNotification = aPendingOutboxNotification(0);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(outboxNotification), List.of());
+        when(kafkaTemplate.send(eq("notification-events"), eq(outboxNotification.getUserId().toString()), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        notificationOutboxRelay.relay();
+
+        verify(kafkaTemplate, times(1)).send(eq("notification-events"), eq(outboxNotification.getUserId().toString()),
+                argThat(event -> event.getType() == NotificationEventType.DEPOSIT_COMPLETED && "10".equals(event.getAttributes().get("amount"))));
+        verify(outboxNotificationRepository, times(1)).deleteAllInBatch(List.of(outboxNotification));
+        verify(outboxNotificationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void whenKafkaIsDown_thenEventIsRetriedWithBackoff() throws Exception {
+        OutboxNotification outboxNotification = aPendingOutboxNotification(1);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(outboxNotification));
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker not available")));
+
+        notificationOutboxRelay.relay();
+
+        assertEquals(2, outboxNotification.getAttempts());
+        assertEquals(OutboxStatus.PENDING, outboxNotification.getStatus());
+        assertTrue(outboxNotification.getNextAttemptOn().isAfter(LocalDateTime.now().plusSeconds(9)));
+        verify(outboxNotificationRepository, times(1)).saveAll(List.of(outboxNotification));
+        verify(outboxNotificationRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void whenOnlySomeEventsAreAcked_thenOnlyTheAckedOnesAreRemoved() throws Exception {
+        OutboxNotification acked = aPendingOutboxNotification(0);
+        OutboxNotification notAcked = aPendingOutboxNotification(0);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(acked, notAcked));
+        when(kafkaTemplate.send(any(), eq(acked.getUserId().toString()), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(any(), eq(notAcked.getUserId().toString()), any())).thenReturn(new CompletableFuture<>());
+
+        notificationOutboxRelay.relay();
+
+        verify(outboxNotificationRepository, times(1)).deleteAllInBatch(List.of(acked));
+        verify(outboxNotificationRepository, times(1)).saveAll(List.of(notAcked));
+        assertEquals(1, notAcked.getAttempts());
+    }
+
+    @Test
+    void whenMaxAttemptsAreReached_thenEventIsMarkedAsFailed() throws Exception {
+        OutboxNotification outboxNotification = aPendingOutboxNotification(2);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(outboxNotification));
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker not available")));
+
+        notificationOutboxRelay.relay();
+
+        assertEquals(3, outboxNotification.getAttempts());
+        assertEquals(OutboxStatus.FAILED, outboxNotification.getStatus());
+    }
+
+    @Test
+    void whenEventsAreClaimed_thenTheyAreLeasedUntilTheClaimTimeout() throws Exception {
+        OutboxNotification outboxNotification = aPendingOutboxNotification(0);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(outboxNotification), List.of());
+        when(kafkaTemplate.send(any(), any(), any())).thenAnswer(invocation -> {
+            assertTrue(outboxNotification.getNextAttemptOn().isAfter(LocalDateTime.now().plusSeconds(50)));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        notificationOutboxRelay.relay();
+
+        // The claim, then the claim that finds nothing due and ends the run
+        verify(transactionManager, times(2)).commit(any());
+        verify(outboxNotificationRepository, times(1)).deleteAllInBatch(List.of(outboxNotification));
+    }
+
+    @Test
+    void whenEventOfAUserFails_thenTheUsersLaterEventIsHeldBackUnsentAndNotRemoved() throws Exception {
+        OutboxNotification first = aPendingOutboxNotification(0);
+        OutboxNotification second = aPendingOutboxNotification(0);
+        second.setUserId(first.getUserId());
+        OutboxNotification otherUsers = aPendingOutboxNotification(0);
+
+        when(outboxNotificationRepository.lockDuePendingNotifications(any(), anyInt())).thenReturn(List.of(first, otherUsers, second));
+        when(kafkaTemplate.send(any(), eq(first.getUserId().toString()), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker not available")));
+        when(kafkaTemplate.send(any(), eq(otherUsers.getUserId().toString()), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        notificationOutboxRelay.relay();
+
+        verify(kafkaTemplate, times(1)).send(any(), eq(first.getUserId().toString()), any());
+        verify(outboxNotificationRepository, times(1)).deleteAllInBatch(List.of(otherUsers));
+        verify(outboxNotificationRepository, times(1)).saveAll(List.of(first, second));
+        assertEquals(1, first.getAttempts());
+        assertEquals(0, second.getAttempts());
+        assertEquals(OutboxStatus.PENDING, second.getStatus());
+        assertFalse(second.getNextAttemptOn().isAfter(LocalDateTime.now()));
+    }
+
+    private OutboxNotification aPendingOutboxNotification(int attempts) throws Exception {
+        UUID userId = UUID.randomUUID();
+        NotificationEvent event = NotificationEvent.depositCompleted(userId, "randomUser", BigDecimal.TEN, true);
+
+        return OutboxNotification.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .eventType(event.getType())
+                .payload(objectMapper.writeValueAsString(event))
+                .status(OutboxStatus.PENDING)
+                .attempts(attempts)
+                .createdOn(LocalDateTime.now())
+                .nextAttemptOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package app.newellgames.notification;
+
+import app.newellgames.exception.NotificationServiceFeignCallException;
+import app.newellgames.notification.client.NotificationClient;
+import app.newellgames.notification.client.dto.NotificationPreference;
+import app.newellgames.notification.client.dto.NotificationRequest;
+import app.newellgames.notification.client.dto.NotificationSummary;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.user.model.User;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomUser;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NotificationServiceUTest {
+
+    private final NotificationClient notificationClient = mock(NotificationClient.class);
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationClient, cacheManager, circuitBreakerRegistry, BulkheadRegistry.ofDefaults(), "maximumSize=100,refreshAfterWrite=1s,expireAfterWrite=1h");
+    }
+
+    @Test
+    void givenCachedPreference_whenGetNotificationPreference_thenNotificationSvcIsCalledOnce() {
+        UUID userId = UUID.randomUUID();
+        when(notificationClient.getUserPreference(userId)).thenReturn(ResponseEntity.ok(new NotificationPreference("EMAIL", true, "user@newellgames.com")));
+
+        NotificationPreference first = notificationService.getNotificationPreference(userId);
+        NotificationPreference second = notificationService.getNotificationPreference(userId);
+
+        assertTrue(first.isEnabled());
+        assertSame(first, second);
+        verify(notificationClient, times(1)).getUserPreference(userId);
+        assertNotNull(cacheManager.getCache("notificationPreferences"));
+    }
+
+    @Test
+    void whenPreferenceIsSavedOrUpdated_thenTheCacheIsWrittenThrough() {
+        UUID userId = UUID.randomUUID();
+        User user = aRandomUser();
+        user.setEmail("user@newellgames.com");
+        when(notificationClient.upsertNotificationPreference(any())).thenReturn(ResponseEntity.ok().build());
+
+        notificationService.saveNotificationPreference(userId, false, "user@newellgames.com");
+        notificationService.updateNotificationPreference(userId, true, user);
+        NotificationPreference preference = notificationService.getNotificationPreference(userId);
+
+        assertTrue(preference.isEnabled());
+        assertEquals("user@newellgames.com", preference.getContactInfo());
+        verify(notificationClient, never()).getUserPreference(any());
+    }
+
+    @Test
+    void givenNotificationSvcIsDown_whenCachedPreferenceIsRefreshed_thenTheStalePreferenceIsReturned() throws InterruptedException {
+        UUID userId = UUID.randomUUID();
+        when(notificationClient.getUserPreference(userId))
+                .thenReturn(ResponseEntity.ok(new NotificationPreference("EMAIL", true, "user@newellgames.com")))
+                .thenThrow(new RuntimeException("notification-svc is down"));
+
+        NotificationPreference loaded = notificationService.getNotificationPreference(userId);
+        Thread.sleep(1100);
+        NotificationPreference stale = notificationService.getNotificationPreference(userId);
+
+        verify(notificationClient, timeout(1000).times(2)).getUserPreference(userId);
+        assertSame(loaded, stale);
+        assertSame(loaded, notificationService.getNotificationPreference(userId));
+    }
+
+    @Test
+    void givenOpenCircuit_whenCallingNotificationSvc_thenReadsFallBackAndWritesFailFastWithoutACall() {
+        UUID userId = UUID.randomUUID();
+        User user = aRandomUser();
+        user.setEmail("user@newellgames.com");
+        circuitBreakerRegistry.circuitBreaker("notification-svc").transitionToOpenState();
+
+        NotificationSummary summary = notificationService.getNotificationSummary(userId);
+
+        assertEquals(0, summary.getSucceeded());
+        assertTrue(notificationService.getRecentNotifications(userId, 0, 5).isEmpty());
+        assertTrue(notificationService.findNotificationPreference(userId).isEmpty());
+        assertThrows(NotificationServiceFeignCallException.class, () -> notificationService.updateNotificationPreference(userId, true, user));
+        verifyNoInteractions(notificationClient);
+    }
+
+    @Test
+    void givenFailingNotificationSvc_whenEnoughCallsFail_thenCircuitOpensAndStopsCallingIt() {
+        UUID userId = UUID.randomUUID();
+        when(notificationClient.getNotificationSummary(userId)).thenThrow(new RuntimeException("notification-svc is down"));
+
+        for (int i = 0; i < 150; i++) {
+            notificationService.getNotificationSummary(userId);
+        }
+
+        verify(notificationClient, times(100)).getNotificationSummary(userId);
+    }
+
+    @Test
+    void whenSendingNotificationsToManyUsers_thenTheyGoToNotificationSvcInOneBulkCall() {
+        List<NotificationRequest> notificationRequests = List.of(
+                NotificationRequest.builder().userId(UUID.randomUUID()).subject("Summer sale").body("Everything -50%").build(),
+                NotificationRequest.builder().userId(UUID.randomUUID()).subject("Summer sale").body("Everything -50%").build());
+        when(notificationClient.sendNotifications(notificationRequests)).thenReturn(ResponseEntity.accepted().build());
+
+        notificationService.sendNotifications(notificationRequests);
+
+        verify(notificationClient, times(1)).sendNotifications(notificationRequests);
+    }
+
+    @Test
+    void givenNotificationSvcIsDown_whenSendingNotificationsToManyUsers_thenItFailsWithFeignCallException() {
+        List<NotificationRequest> notificationRequests = List.of(NotificationRequest.builder().userId(UUID.randomUUID()).subject("Summer sale").body("Everything -50%").build());
+        when(notificationClient.sendNotifications(any())).thenThrow(new RuntimeException("notification-svc is down"));
+
+        assertThrows(NotificationServiceFeignCallException.class, () -> notificationService.sendNotifications(notificationRequests));
+    }
+}
@@ -1,15 +1,24 @@
 package app.newellgames.user;
 
 
+import app.newellgames.balance.service.BalanceService;
 import app.newellgames.cart.service.CartService;
+import app.newellgames.cart.service.CheckoutService;
 import app.newellgames.game.model.Game;
+import app.newellgames.notification.event.NotificationEventType;
+import app.newellgames.notification.service.NotificationEventPublisher;
 import app.newellgames.notification.service.NotificationService;
 import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.service.TransactionService;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.model.UserRole;
 import app.newellgames.user.repository.UserRepository;
+import app.newellgames.user.service.OwnershipService;
 import app.newellgames.user.service.UserService;
+import app.newellgames.web.dto.DepositRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -20,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -28,9 +38,11 @@ import java.util.stream.Stream;
 
 import static app.newellgames.TestBuilder.aRandomGame;
 import static app.newellgames.TestBuilder.aRandomTransaction;
+import static app.newellgames.TestBuilder.aRandomUser;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceUTest {
@@ -47,9 +59,21 @@ public class UserServiceUTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private NotificationEventPublisher notificationEventPublisher;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private BalanceService balanceService;
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private OwnershipService ownershipService;
+
     @InjectMocks
     private UserService userService;
 
@@ -128,9 +152,10 @@ public class UserServiceUTest {
 
         User  user = User.builder()
                 .id(UUID.randomUUID())
-                .myGames(List.of(game))
                 .build();
 
+        when(ownershipService.getOwnedGameIds(user.getId())).thenReturn(Set.of(game.getId()));
+
         Set<UUID> userGames = userService.getOwnedGameIds(user);
 
         assertThat(userGames).hasSize(1);
@@ -151,4 +176,62 @@ public class UserServiceUTest {
         assertThat(usersTransactions).hasSize(1);
         assertTrue(usersTransactions.contains(transaction));
     }
+
+    @Test
+    void whenGetByIdWithLibraryProfile_thenOnlyLibraryGraphIsLoaded() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .build();
+
+        when(userRepository.findWithLibraryById(user.getId())).thenReturn(Optional.of(user));
+
+        User result = userService.getById(user.getId(), UserFetchProfile.LIBRARY);
+
+        assertSame(user, result);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).findWithCartById(any());
+    }
+
+    @Test
+    void whenTopUpActiveUser_thenBalanceIsCreditedThroughTheLedgerAndUserIsNotSaved() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .balance(BigDecimal.ONE)
+                .isActive(true)
+                .build();
+        Transaction transaction = aRandomTransaction();
+
+        when(transactionService.initializeTransaction(user, BigDecimal.TEN, TransactionStatus.SUCCESSFUL, TransactionType.DEPOSIT)).thenReturn(transaction);
+
+        userService.topUp(user, DepositRequest.builder().amount(BigDecimal.TEN).build());
+
+        verify(balanceService, times(1)).credit(user.getId(), BigDecimal.TEN, transaction.getId());
+        verify(userRepository, never()).save(any());
+        assertEquals(BigDecimal.valueOf(11), user.getBalance());
+    }
+
+    @Test
+    void whenPurchaseCartItemsAndCheckoutIsDeclined_thenNoNotificationIsSent() {
+        User user = aRandomUser();
+
+        when(checkoutService.checkout(user)).thenReturn(false);
+
+        userService.purchaseCartItems(user);
+
+        verify(notificationEventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void whenPurchaseCartItems_thenNotificationListsTheGamesThatWereInTheCart() {
+        User user = aRandomUser();
+        String title = user.getCart().getItems().get(0).getGame().getTitle();
+
+        when(checkoutService.checkout(user)).thenReturn(true);
+
+        userService.purchaseCartItems(user);
+
+        verify(notificationEventPublisher, times(1)).publish(argThat(event -> event.getType() == NotificationEventType.PURCHASE_COMPLETED
+                && event.getUserId().equals(user.getId())
+                && event.getAttributes().get("gameTitles").contains(title)));
+    }
 }
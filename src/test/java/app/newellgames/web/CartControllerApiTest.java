@@ -3,8 +3,10 @@ package app.newellgames.web;
 import app.newellgames.cart.model.CartItem;
 import app.newellgames.cart.service.CartService;
 import app.newellgames.config.CustomAuthenticationFailureHandler;
+import app.newellgames.idempotency.service.IdempotencyService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.User;
+import app.newellgames.user.model.UserFetchProfile;
 import app.newellgames.user.model.UserRole;
 import app.newellgames.user.service.UserService;
 import app.newellgames.web.controllers.CartController;
@@ -22,6 +24,7 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -39,14 +42,19 @@ public class CartControllerApiTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Test
     void getRequestToCartEndpoint_ShouldReturnCartView () throws Exception {
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(cartService.getCartByUserId(any())).thenReturn(aRandomUser().getCart());
         when(cartService.calculateTotalPrice(any())).thenReturn(BigDecimal.ONE);
+        when(idempotencyService.newKey()).thenReturn("key-1");
 
         UUID userId = UUID.randomUUID();
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
@@ -59,7 +67,8 @@ public class CartControllerApiTest {
                 .andExpect(view().name("cart"))
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("totalPrice"))
-                .andExpect(model().attributeExists("cartItems"));
+                .andExpect(model().attributeExists("cartItems"))
+                .andExpect(model().attributeExists("idempotencyKey"));
     }
 
     @Test
@@ -71,7 +80,7 @@ public class CartControllerApiTest {
                 new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
 
         User mockUser = aRandomUser();
-        when(userService.getById(userId)).thenReturn(mockUser);
+        when(userService.getById(userId, UserFetchProfile.CART)).thenReturn(mockUser);
 
         CartItem mockCartItem = new CartItem();
         when(cartService.getCartItem(cartItemId)).thenReturn(mockCartItem);
@@ -87,7 +96,7 @@ public class CartControllerApiTest {
                 .andExpect(redirectedUrl("/cart"));
 
 
-        verify(userService).getById(userId);
+        verify(userService).getById(userId, UserFetchProfile.CART);
         verify(cartService).getCartItem(cartItemId);
         verify(cartService).removeGameFromCart(mockCartItem, mockUser);
     }
@@ -100,7 +109,7 @@ public class CartControllerApiTest {
                 new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
 
         User mockUser = aRandomUser();
-        when(userService.getById(userId)).thenReturn(mockUser);
+        when(userService.getById(userId, UserFetchProfile.CART)).thenReturn(mockUser);
 
         doNothing().when(cartService).clearAllItemsFromCart(mockUser);
 
@@ -113,7 +122,7 @@ public class CartControllerApiTest {
                 .andExpect(redirectedUrl("/cart"));
 
 
-        verify(userService).getById(userId);
+        verify(userService).getById(userId, UserFetchProfile.CART);
         verify(cartService).clearAllItemsFromCart(mockUser);
     }
 
@@ -125,11 +134,16 @@ public class CartControllerApiTest {
                 new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
 
         User mockUser = aRandomUser();
-        when(userService.getById(userId)).thenReturn(mockUser);
+        when(userService.getById(userId, UserFetchProfile.CART)).thenReturn(mockUser);
 
         doNothing().when(userService).purchaseCartItems(mockUser);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(idempotencyService).execute(eq(mockUser.getId()), eq("key-1"), any(Runnable.class));
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/cart/purchase")
+                .param("idempotencyKey", "key-1")
                 .with(user(principal))
                 .with(csrf());
 
@@ -138,7 +152,8 @@ public class CartControllerApiTest {
                 .andExpect(redirectedUrl("/cart"));
 
 
-        verify(userService).getById(userId);
+        verify(userService).getById(userId, UserFetchProfile.CART);
+        verify(idempotencyService).execute(eq(mockUser.getId()), eq("key-1"), any(Runnable.class));
         verify(userService).purchaseCartItems(mockUser);
     }
 }
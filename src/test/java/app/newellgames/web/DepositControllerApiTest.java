@@ -1,6 +1,7 @@
 package app.newellgames.web;
 
 import app.newellgames.config.CustomAuthenticationFailureHandler;
+import app.newellgames.idempotency.service.IdempotencyService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.UserRole;
 import app.newellgames.user.service.UserService;
@@ -19,6 +20,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -32,13 +34,16 @@ public class DepositControllerApiTest {
     @MockitoBean
     UserService userService;
 
+    @MockitoBean
+    IdempotencyService idempotencyService;
+
     @Autowired
     MockMvc mockMvc;
 
     @Test
     void getRequestToAddFundsEndpoint_ShouldReturnAddFundsView() throws Exception {
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
 
         UUID userId = UUID.randomUUID();
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
@@ -61,19 +66,27 @@ public class DepositControllerApiTest {
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/add-funds")
                 .formField("amount", "100")
+                .formField("idempotencyKey", "key-1")
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(userService).topUp(any(), any());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(idempotencyService).execute(any(), eq("key-1"), any(Runnable.class));
+        when(idempotencyService.newKey()).thenReturn("key-2");
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("depositRequest"))
                 .andExpect(model().attributeExists("success"))
+                .andExpect(model().attributeExists("idempotencyKey"))
                 .andExpect(view().name("add-funds"));
 
+        verify(idempotencyService, times(1)).execute(any(), eq("key-1"), any(Runnable.class));
         verify(userService, times(1)).topUp(any(), any());
     }
 
@@ -88,7 +101,7 @@ public class DepositControllerApiTest {
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -0,0 +1,99 @@
+package app.newellgames.web;
+
+import app.newellgames.config.CustomAuthenticationFailureHandler;
+import app.newellgames.notification.client.dto.Notification;
+import app.newellgames.notification.client.dto.NotificationPreference;
+import app.newellgames.notification.client.dto.NotificationSummary;
+import app.newellgames.notification.service.NotificationService;
+import app.newellgames.security.AuthenticationMetadata;
+import app.newellgames.user.model.UserRole;
+import app.newellgames.user.service.UserService;
+import app.newellgames.web.controllers.NotificationController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static app.newellgames.TestBuilder.aRandomUserSummary;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(NotificationController.class)
+@Import(CustomAuthenticationFailureHandler.class)
+public class NotificationControllerApiTest {
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getRequestToNotificationsEndpoint_ShouldShowTheSummaryCountsAndTheLatestNotifications () throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/notifications")
+                .with(user(principal));
+
+        NotificationSummary summary = new NotificationSummary();
+        summary.setSucceeded(7);
+        summary.setFailed(2);
+        Notification notification = new Notification();
+        notification.setSubject("subject");
+        notification.setStatus("SUCCEEDED");
+        notification.setType("EMAIL");
+        notification.setCreatedOn(LocalDateTime.now());
+
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(notificationService.findNotificationPreference(any())).thenReturn(Optional.of(new NotificationPreference("EMAIL", true, "user@newellgames.com")));
+        when(notificationService.getNotificationSummary(any())).thenReturn(summary);
+        when(notificationService.getRecentNotifications(any(), eq(0), eq(5))).thenReturn(List.of(notification));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(view().name("notifications"))
+                .andExpect(model().attribute("succeededNotificationsNumber", 7L))
+                .andExpect(model().attribute("failedNotificationsNumber", 2L))
+                .andExpect(model().attribute("notificationHistory", List.of(notification)));
+
+        verify(notificationService, times(1)).getRecentNotifications(any(), eq(0), eq(5));
+    }
+
+    @Test
+    void getRequestToNotificationsEndpoint_WhenNotificationSvcIsDown_ShouldStillRenderThePage () throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/notifications")
+                .with(user(principal));
+
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(notificationService.findNotificationPreference(any())).thenReturn(Optional.empty());
+        when(notificationService.getNotificationSummary(any())).thenReturn(new NotificationSummary());
+        when(notificationService.getRecentNotifications(any(), eq(0), eq(5))).thenReturn(List.of());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(view().name("notifications"))
+                .andExpect(model().attributeExists("notificationServiceFailureMessage"))
+                .andExpect(model().attribute("succeededNotificationsNumber", 0L));
+    }
+}
@@ -38,7 +38,7 @@ public class ProfileControllerApiTest {
 
     @Test
     void getRequestToProfileEndpoint_ShouldReturnProfileView() throws Exception {
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
 
         UUID userId = UUID.randomUUID();
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
@@ -54,7 +54,7 @@ public class ProfileControllerApiTest {
 
     @Test
     void getRequestToProfileEditProfileEndpoint_ShouldReturnEditProfileView() throws Exception {
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
 
         UUID userId = UUID.randomUUID();
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
@@ -83,7 +83,7 @@ public class ProfileControllerApiTest {
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(userService).editProfile(any(), any());
 
         mockMvc.perform(request)
@@ -106,7 +106,7 @@ public class ProfileControllerApiTest {
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
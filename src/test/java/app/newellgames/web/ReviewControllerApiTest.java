@@ -5,6 +5,7 @@ import app.newellgames.config.CustomAuthenticationFailureHandler;
 import app.newellgames.game.model.Game;
 import app.newellgames.game.service.GameService;
 import app.newellgames.review.model.Review;
+import app.newellgames.review.model.ReviewPage;
 import app.newellgames.review.model.ReviewType;
 import app.newellgames.review.service.ReviewService;
 import app.newellgames.security.AuthenticationMetadata;
@@ -26,6 +27,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static app.newellgames.TestBuilder.aRandomGame;
 import static app.newellgames.TestBuilder.aRandomReview;
 import static org.mockito.ArgumentMatchers.any;
@@ -62,20 +64,20 @@ public class ReviewControllerApiTest {
         aRandomReview.setGame(aRandomGame);
         aRandomReview.setAuthor(aRandomUser);
 
-        aRandomGame.setReviews(List.of(aRandomReview));
-
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/reviews/{id}", gameId)
                 .with(user(principal));
 
         when(gameService.getById(any())).thenReturn(aRandomGame);
-        when(userService.getById(any())).thenReturn(aRandomUser);
+        when(userService.getById(any(), any())).thenReturn(aRandomUser);
         when(userService.checkIfUserOwnsTheGame(any(), any())).thenReturn(true);
+        when(reviewService.getReviewPage(any(), any(), any(), any())).thenReturn(ReviewPage.of(List.of(aRandomReview), 20));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("reviews"))
+                .andExpect(model().attributeExists("reviewPage"))
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("game"))
                 .andExpect(model().attributeExists("reviews"))
@@ -94,7 +96,7 @@ public class ReviewControllerApiTest {
                 .with(user(principal));
 
         when(gameService.getById(any())).thenReturn(aRandomGame());
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -121,7 +123,7 @@ public class ReviewControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/reviews/my-reviews")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser);
+        when(userService.getById(any(), any())).thenReturn(aRandomUser);
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -145,7 +147,7 @@ public class ReviewControllerApiTest {
                 .with(csrf());
 
         when(gameService.getById(any())).thenReturn(aRandomGame());
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(reviewService).addReview(any(), any(), any());
 
         mockMvc.perform(request)
@@ -170,7 +172,7 @@ public class ReviewControllerApiTest {
                 .with(csrf());
 
         when(gameService.getById(any())).thenReturn(aRandomGame());
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(reviewService).addReview(any(), any(), any());
 
         mockMvc.perform(request)
@@ -3,7 +3,13 @@ package app.newellgames.web;
 import app.newellgames.cart.service.CartService;
 import app.newellgames.config.CustomAuthenticationFailureHandler;
 import app.newellgames.game.model.Game;
+import app.newellgames.game.model.GamePage;
+import app.newellgames.game.model.GameSort;
+import app.newellgames.game.model.GameSummary;
+import app.newellgames.game.model.ShopGame;
+import app.newellgames.game.model.ShopPage;
 import app.newellgames.game.service.GameService;
+import app.newellgames.game.service.ShopService;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.user.model.UserRole;
 import app.newellgames.user.service.UserService;
@@ -24,6 +30,7 @@ import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomGame;
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -43,6 +50,9 @@ public class ShopControllerApiTest {
     @MockitoBean
     private CartService cartService;
 
+    @MockitoBean
+    private ShopService shopService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -57,20 +67,18 @@ public class ShopControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/shop")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
-        when(userService.getOwnedGameIds(any())).thenReturn(Set.of(aRandomGame.getId()));
-        when(cartService.getGamesForUser(any())).thenReturn(Set.of(aRandomGame));
-        when(gameService.getAllGames()).thenReturn(List.of(aRandomGame));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(shopService.getShopPage(any(), any(), any(), any(), any())).thenReturn(aShopPage(aRandomGame, true, false));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("shop"))
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("allGames"))
-                .andExpect(model().attributeExists("ownedGameIds"))
-                .andExpect(model().attributeExists("gamesAlreadyInCart"));
+                .andExpect(model().attributeExists("gamePage"));
 
-        verify(gameService, times(0)).findGamesByTitle(any());
+        verify(shopService, times(1)).getShopPage(any(), argThat(filter -> !filter.hasFilters() && filter.getSort() == GameSort.TITLE), isNull(), isNull(), isNull());
+        verify(userService, never()).getById(any(), any());
     }
 
     @Test
@@ -84,21 +92,39 @@ public class ShopControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/shop").param("query", "Elden Ring")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
-        when(userService.getOwnedGameIds(any())).thenReturn(Set.of(aRandomGame.getId()));
-        when(cartService.getGamesForUser(any())).thenReturn(Set.of(aRandomGame));
-        when(gameService.findGamesByTitle(any())).thenReturn(List.of(aRandomGame));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(shopService.getShopPage(any(), any(), any(), any(), any())).thenReturn(aShopPage(aRandomGame, false, true));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("shop"))
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("allGames"))
-                .andExpect(model().attributeExists("query"))
-                .andExpect(model().attributeExists("ownedGameIds"))
-                .andExpect(model().attributeExists("gamesAlreadyInCart"));
+                .andExpect(model().attributeExists("query"));
+
+        verify(shopService, times(1)).getShopPage(any(), argThat(filter -> "Elden Ring".equals(filter.getQuery())), any(), any(), any());
+    }
+
+    @Test
+    void getRequestToShopEndpoint_SortedByRating_ShouldReadTheRatingOrderedPage () throws Exception {
+        UUID userId = UUID.randomUUID();
+        Game aRandomGame = aRandomGame();
+        aRandomGame.setId(UUID.randomUUID());
+
+        AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.USER, true);
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/shop").param("sort", "RATING")
+                .with(user(principal));
+
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(shopService.getShopPage(any(), any(), any(), any(), any())).thenReturn(aShopPage(aRandomGame, false, false));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(view().name("shop"))
+                .andExpect(model().attribute("selectedSort", GameSort.RATING));
 
-        verify(gameService, times(0)).getAllGames();
+        verify(shopService, times(1)).getShopPage(any(), argThat(filter -> filter.getSort() == GameSort.RATING), any(), any(), any());
     }
 
     @Test
@@ -113,7 +139,7 @@ public class ShopControllerApiTest {
                 .with(csrf());
 
         when(gameService.getById(any())).thenReturn(aRandomGame());
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(cartService).addGameToCart(any(), any());
 
         mockMvc.perform(request)
@@ -122,4 +148,9 @@ public class ShopControllerApiTest {
 
         verify(cartService, times(1)).addGameToCart(any(), any());
     }
+
+    private ShopPage aShopPage(Game game, boolean owned, boolean inCart) {
+        GameSummary summary = GameSummary.of(game);
+        return new ShopPage(List.of(new ShopGame(summary, owned, inCart)), GamePage.of(List.of(summary), 24));
+    }
 }
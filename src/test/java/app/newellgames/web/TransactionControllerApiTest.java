@@ -3,6 +3,9 @@ package app.newellgames.web;
 import app.newellgames.config.CustomAuthenticationFailureHandler;
 import app.newellgames.security.AuthenticationMetadata;
 import app.newellgames.transaction.model.Transaction;
+import app.newellgames.transaction.model.TransactionPage;
+import app.newellgames.transaction.model.TransactionStatus;
+import app.newellgames.transaction.model.TransactionType;
 import app.newellgames.transaction.service.TransactionService;
 import app.newellgames.user.model.User;
 import app.newellgames.user.model.UserRole;
@@ -18,12 +21,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomTransaction;
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -50,8 +57,8 @@ public class TransactionControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/transactions/my-transactions")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
-        when(userService.getTransactions(any())).thenReturn(List.of(aRandomTransaction()));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(transactionService.getAllTransactionsByUserId(any())).thenReturn(List.of(aRandomTransaction()));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -73,16 +80,17 @@ public class TransactionControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/transactions/admin/all-transactions")
                 .with(user(principal));
 
-        when(transactionService.getAllTransactions()).thenReturn(List.of(myTransaction));
-        when(userService.getById(any())).thenReturn(user);
+        when(transactionService.getLedgerPage(any(), any(), any())).thenReturn(TransactionPage.of(List.of(myTransaction), 50));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("all-transactions"))
                 .andExpect(model().attributeExists("user"))
-                .andExpect(model().attributeExists("allTransactions"));
+                .andExpect(model().attributeExists("allTransactions"))
+                .andExpect(model().attributeExists("transactionPage"));
 
-        verify(transactionService, times(0)).getTransactionByOwnerIdOrUsername(any());
+        verify(transactionService, times(1)).getLedgerPage(any(), isNull(), isNull());
     }
 
     @Test
@@ -95,20 +103,28 @@ public class TransactionControllerApiTest {
 
         AuthenticationMetadata principal = new AuthenticationMetadata(userId, "User123", "123123", UserRole.ADMIN, true);
 
-        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/transactions/admin/all-transactions").param("query", "Not Blank")
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/transactions/admin/all-transactions").param("owner", "Not Blank")
+                .param("status", "FAILED")
+                .param("type", "DEPOSIT")
+                .param("from", "2025-01-01")
+                .param("to", "2025-01-31")
                 .with(user(principal));
 
-        when(transactionService.getTransactionByOwnerIdOrUsername(any())).thenReturn(List.of(myTransaction));
-        when(userService.getById(any())).thenReturn(user);
+        when(transactionService.getLedgerPage(any(), any(), any())).thenReturn(TransactionPage.of(List.of(myTransaction), 50));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("all-transactions"))
                 .andExpect(model().attributeExists("user"))
                 .andExpect(model().attributeExists("allTransactions"))
-                .andExpect(model().attributeExists("query"));
+                .andExpect(model().attributeExists("filter"));
 
-        verify(transactionService, times(0)).getAllTransactions();
+        verify(transactionService, times(1)).getLedgerPage(argThat(filter -> "Not Blank".equals(filter.getOwner())
+                && filter.getStatus() == TransactionStatus.FAILED
+                && filter.getType() == TransactionType.DEPOSIT
+                && LocalDate.of(2025, 1, 1).equals(filter.getFrom())
+                && LocalDate.of(2025, 1, 31).equals(filter.getTo())), isNull(), isNull());
     }
 
     @Test
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
@@ -21,6 +22,7 @@ import java.util.UUID;
 
 import static app.newellgames.TestBuilder.aRandomTransaction;
 import static app.newellgames.TestBuilder.aRandomUser;
+import static app.newellgames.TestBuilder.aRandomUserSummary;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -47,8 +49,8 @@ public class UserControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/admin/users")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
-        when(userService.getAllUsers()).thenReturn(List.of(aRandomUser()));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(userService.getUsersPage(0)).thenReturn(new SliceImpl<>(List.of(aRandomUserSummary())));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -80,8 +82,9 @@ public class UserControllerApiTest {
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/admin/users").param("query", "")
                 .with(user(principal));
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
-        when(userService.getUserByUsernameOrIdOrEmail(any())).thenReturn(List.of(aRandomUser()));
+        when(userService.getSummary(any())).thenReturn(aRandomUserSummary());
+        when(userService.getUserByUsernameOrIdOrEmail(any())).thenReturn(List.of(aRandomUserSummary()));
+        when(userService.getUsersPage(0)).thenReturn(new SliceImpl<>(List.of(aRandomUserSummary())));
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
@@ -101,7 +104,7 @@ public class UserControllerApiTest {
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(userService).switchUserRoleToUser(any());
 
         mockMvc.perform(request)
@@ -121,7 +124,7 @@ public class UserControllerApiTest {
                 .with(user(principal))
                 .with(csrf());
 
-        when(userService.getById(any())).thenReturn(aRandomUser());
+        when(userService.getById(any(), any())).thenReturn(aRandomUser());
         doNothing().when(userService).switchUserRoleToAdmin(any());
 
         mockMvc.perform(request)